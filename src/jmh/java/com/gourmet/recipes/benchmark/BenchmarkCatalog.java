@@ -0,0 +1,154 @@
+package com.gourmet.recipes.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourmet.recipes.RecipeManagerApplication;
+import com.gourmet.recipes.dto.ImportReport;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.service.RecipeImportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application (on a random port, as the security config needs the servlet
+ * stack) against a private in-memory H2 database and seeds it with a deterministic
+ * synthetic catalog through the regular import path, so the in-memory indexes are
+ * populated as in production.
+ */
+final class BenchmarkCatalog implements AutoCloseable {
+
+    static final String OWNER = "bench";
+    static final String OTHER_OWNER = "bench-other";
+    static final String PASSWORD = "bench-password";
+    static final int INGREDIENT_POOL = 200;
+
+    private static final String[] WORDS = {
+            "boil", "simmer", "roast", "chop", "slice", "whisk", "fry", "bake", "stir", "season",
+            "garlic", "onion", "sauce", "oven", "pan", "golden", "tender", "crispy", "fresh", "serve"
+    };
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkCatalog(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @param extraArgs further {@code --property=value} arguments, applied last
+     */
+    static BenchmarkCatalog start(int catalogSize, String... extraArgs) {
+        // Passed as arguments so they take precedence over application.yml
+        Stream<String> defaults = Stream.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.flyway.enabled=false",
+                // Benchmark clients send as one user far above any production rate limit
+                "--recipes.admission.enabled=false",
+                "--logging.level.root=WARN");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RecipeManagerApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(Stream.concat(defaults, Stream.of(extraArgs)).toArray(String[]::new));
+        BenchmarkCatalog catalog = new BenchmarkCatalog(context);
+        catalog.seed(catalogSize);
+        return catalog;
+    }
+
+    int port() {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    static String ingredient(int i) {
+        return String.format("ingredient-%03d", i);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // ===== Seeding =====
+
+    private void seed(int catalogSize) {
+        UserRepository users = bean(UserRepository.class);
+        String password = bean(PasswordEncoder.class).encode(PASSWORD);
+        for (String username : List.of(OWNER, OTHER_OWNER)) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(password);
+            users.save(user);
+        }
+
+        // Alternate owners so the visibility filter has both own and foreign recipes to sift
+        Random random = new Random(42);
+        ObjectMapper objectMapper = bean(ObjectMapper.class);
+        RecipeImportService importer = bean(RecipeImportService.class);
+        StringBuilder mine = new StringBuilder();
+        StringBuilder theirs = new StringBuilder();
+        try {
+            for (int i = 0; i < catalogSize; i++) {
+                String line = objectMapper.writeValueAsString(recipe(i, random)) + "\n";
+                (i % 2 == 0 ? mine : theirs).append(line);
+            }
+            checkImported(importer.importRecipes(OWNER, ndjson(mine), 1000));
+            checkImported(importer.importRecipes(OTHER_OWNER, ndjson(theirs), 1000));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static RecipeDTO recipe(int i, Random random) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName("Recipe " + i + " " + WORDS[random.nextInt(WORDS.length)]);
+        dto.setVegetarian(random.nextBoolean());
+        dto.setServings(1 + random.nextInt(8));
+        dto.setPublic(random.nextInt(10) < 8);
+
+        StringBuilder instructions = new StringBuilder();
+        for (int w = 0; w < 20 + random.nextInt(40); w++) {
+            instructions.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        dto.setInstructions(instructions.toString().trim());
+
+        // Skewed towards the low ordinals so some ingredients are common and some rare
+        List<String> ingredients = new ArrayList<>();
+        for (int n = 0; n < 4 + random.nextInt(8); n++) {
+            int ordinal = (int) (INGREDIENT_POOL * Math.pow(random.nextDouble(), 2));
+            ingredients.add(ingredient(ordinal));
+        }
+        dto.setIngredients(ingredients.stream().distinct().toList());
+        return dto;
+    }
+
+    private static ByteArrayInputStream ndjson(StringBuilder lines) {
+        return new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void checkImported(ImportReport report) {
+        if (report.failed() > 0) {
+            throw new IllegalStateException("Seeding failed: " + report.errors());
+        }
+    }
+}
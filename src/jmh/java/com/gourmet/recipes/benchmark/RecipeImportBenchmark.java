@@ -0,0 +1,65 @@
+package com.gourmet.recipes.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourmet.recipes.dto.ImportReport;
+import com.gourmet.recipes.service.RecipeImportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NDJSON import through RecipeImportService (parsing, validation, one ingredient
+ * resolution per chunk, batched inserts and index updates) per chunk size. Every
+ * invocation adds {@link #RECORDS} recipes, so the catalog grows during the run;
+ * after the first one all ingredients are already known.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecipeImportBenchmark {
+
+    private static final int RECORDS = 2_000;
+
+    @Param({"1000"})
+    int catalogSize;
+
+    @Param({"100", "500", "1000"})
+    int batchSize;
+
+    private BenchmarkCatalog catalog;
+    private RecipeImportService importService;
+    private byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void setup() throws JsonProcessingException {
+        catalog = BenchmarkCatalog.start(catalogSize);
+        importService = catalog.bean(RecipeImportService.class);
+
+        ObjectMapper objectMapper = catalog.bean(ObjectMapper.class);
+        Random random = new Random(7);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < RECORDS; i++) {
+            lines.append(objectMapper.writeValueAsString(BenchmarkCatalog.recipe(i, random))).append('\n');
+        }
+        ndjson = lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public ImportReport importRecipes() throws IOException {
+        ImportReport report = importService.importRecipes(BenchmarkCatalog.OWNER, new ByteArrayInputStream(ndjson), batchSize);
+        if (report.failed() > 0) {
+            throw new IllegalStateException("Import failed: " + report.errors());
+        }
+        return report;
+    }
+}
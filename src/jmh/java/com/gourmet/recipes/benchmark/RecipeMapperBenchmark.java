@@ -0,0 +1,95 @@
+package com.gourmet.recipes.benchmark;
+
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.entity.Ingredient;
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.mapper.RecipeMapper;
+import com.gourmet.recipes.service.IngredientResolver;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Pure mapping cost of RecipeMapper, without a database: ingredient resolution is
+ * replaced by a lookup in a prebuilt map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecipeMapperBenchmark {
+
+    @Param({"5", "20"})
+    int ingredientCount;
+
+    private final RecipeMapper mapper = Mappers.getMapper(RecipeMapper.class);
+    private IngredientResolver resolver;
+    private RecipeDTO dto;
+    private Recipe recipe;
+
+    @Setup
+    public void setup() {
+        Map<String, Ingredient> ingredients = new HashMap<>();
+        List<String> names = IntStream.range(0, ingredientCount)
+                .mapToObj(BenchmarkCatalog::ingredient)
+                .toList();
+        for (int i = 0; i < names.size(); i++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId((long) i);
+            ingredient.setName(names.get(i));
+            ingredients.put(names.get(i), ingredient);
+        }
+        resolver = new IngredientResolver(null) {
+            @Override
+            public Set<Ingredient> resolve(Collection<String> requested) {
+                Set<Ingredient> resolved = new HashSet<>();
+                for (String name : requested) {
+                    resolved.add(ingredients.get(name));
+                }
+                return resolved;
+            }
+        };
+
+        dto = new RecipeDTO();
+        dto.setName("Benchmark Stew");
+        dto.setVegetarian(true);
+        dto.setServings(4);
+        dto.setInstructions("Chop everything, simmer for an hour and serve hot.");
+        dto.setIngredients(names);
+        dto.setPublic(true);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername(BenchmarkCatalog.OWNER);
+        recipe = mapper.toEntity(dto, resolver);
+        recipe.setId(1L);
+        recipe.setUser(owner);
+        recipe.setCreatedAt(LocalDateTime.now());
+        recipe.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public Recipe toEntity() {
+        return mapper.toEntity(dto, resolver);
+    }
+
+    @Benchmark
+    public RecipeDTO toDto() {
+        return mapper.toDto(recipe);
+    }
+
+    @Benchmark
+    public RecipeResponse toResponse() {
+        return mapper.toResponse(recipe);
+    }
+}
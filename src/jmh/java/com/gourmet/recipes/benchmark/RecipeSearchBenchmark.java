@@ -0,0 +1,88 @@
+package com.gourmet.recipes.benchmark;
+
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.search.IngredientMatch;
+import com.gourmet.recipes.service.RecipeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end RecipeService.searchRecipes against a seeded H2 catalog, including
+ * the in-memory indexes and mapping to RecipeResponse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecipeSearchBenchmark {
+
+    @Param({"1000", "10000"})
+    int catalogSize;
+
+    private final Pageable page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    private BenchmarkCatalog catalog;
+    private RecipeService service;
+    private RecipeSearchCriteria anyIngredient;
+    private RecipeSearchCriteria allIngredientsExcluding;
+    private RecipeSearchCriteria attributes;
+    private RecipeSearchCriteria ranked;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = BenchmarkCatalog.start(catalogSize);
+        service = catalog.bean(RecipeService.class);
+
+        anyIngredient = new RecipeSearchCriteria();
+        anyIngredient.setIngredients(List.of(BenchmarkCatalog.ingredient(3), BenchmarkCatalog.ingredient(40)));
+
+        allIngredientsExcluding = new RecipeSearchCriteria();
+        allIngredientsExcluding.setIngredients(List.of(BenchmarkCatalog.ingredient(0), BenchmarkCatalog.ingredient(1)));
+        allIngredientsExcluding.setIngredientMatch(IngredientMatch.ALL);
+        allIngredientsExcluding.setExcludedIngredients(List.of(BenchmarkCatalog.ingredient(2)));
+
+        attributes = new RecipeSearchCriteria();
+        attributes.setVegetarian(true);
+        attributes.setServings(4);
+        attributes.setText("simmer");
+
+        ranked = new RecipeSearchCriteria();
+        ranked.setText("roast garlic golden");
+        ranked.setRanked(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Page<RecipeResponse> anyIngredient() {
+        return search(anyIngredient);
+    }
+
+    @Benchmark
+    public Page<RecipeResponse> allIngredientsExcluding() {
+        return search(allIngredientsExcluding);
+    }
+
+    @Benchmark
+    public Page<RecipeResponse> attributes() {
+        return search(attributes);
+    }
+
+    @Benchmark
+    public Page<RecipeResponse> ranked() {
+        return search(ranked);
+    }
+
+    private Page<RecipeResponse> search(RecipeSearchCriteria criteria) {
+        return service.searchRecipes(criteria, BenchmarkCatalog.OWNER, false, page);
+    }
+}
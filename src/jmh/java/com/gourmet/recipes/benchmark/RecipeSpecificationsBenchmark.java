@@ -0,0 +1,97 @@
+package com.gourmet.recipes.benchmark;
+
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.repository.RecipeRepository;
+import com.gourmet.recipes.repository.RecipeSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecipeSpecifications combinations: building the criteria query alone, and
+ * executing it through the repository (page plus count query).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecipeSpecificationsBenchmark {
+
+    @Param({"1000", "10000"})
+    int catalogSize;
+
+    private final List<String> common = List.of(BenchmarkCatalog.ingredient(0), BenchmarkCatalog.ingredient(1));
+    private final List<String> rare = List.of(BenchmarkCatalog.ingredient(150));
+    private final Pageable page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    private BenchmarkCatalog catalog;
+    private RecipeRepository recipeRepository;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = BenchmarkCatalog.start(catalogSize);
+        recipeRepository = catalog.bean(RecipeRepository.class);
+        entityManager = catalog.bean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        catalog.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Recipe> buildFullFilter() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Recipe> query = cb.createQuery(Recipe.class);
+        Root<Recipe> root = query.from(Recipe.class);
+        query.where(fullFilterSpec().toPredicate(root, query, cb));
+        return query;
+    }
+
+    @Benchmark
+    public Page<Recipe> anyIngredient() {
+        return recipeRepository.findAll(visible(RecipeSpecifications.hasIngredients(common)), page);
+    }
+
+    @Benchmark
+    public Page<Recipe> allIngredients() {
+        return recipeRepository.findAll(visible(RecipeSpecifications.hasAllIngredients(common)), page);
+    }
+
+    @Benchmark
+    public Page<Recipe> excludingIngredients() {
+        return recipeRepository.findAll(visible(RecipeSpecifications.excludesIngredients(rare)), page);
+    }
+
+    @Benchmark
+    public Page<Recipe> fullFilter() {
+        return recipeRepository.findAll(fullFilterSpec(), page);
+    }
+
+    // ===== Helpers =====
+
+    private Specification<Recipe> fullFilterSpec() {
+        return visible(Specification
+                .where(RecipeSpecifications.isVegetarian(true))
+                .and(RecipeSpecifications.hasServings(4))
+                .and(RecipeSpecifications.hasIngredients(common))
+                .and(RecipeSpecifications.excludesIngredients(rare))
+                .and(RecipeSpecifications.instructionsContains("simmer")));
+    }
+
+    private static Specification<Recipe> visible(Specification<Recipe> spec) {
+        return spec.and(RecipeSpecifications.belongsToUser(BenchmarkCatalog.OWNER).or(RecipeSpecifications.isPublic()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.gourmet.recipes.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gourmet.recipes.dto.RecipeResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a search result page in each negotiable format, configured like
+ * the application's converters, with and without gzip. The page is fixed per trial,
+ * so each format's payload size is computed once at setup and printed to the run log
+ * rather than measured per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchPageSerializationBenchmark {
+
+    private static final String[] WORDS = {
+            "boil", "simmer", "roast", "chop", "slice", "whisk", "fry", "bake", "stir", "season",
+            "garlic", "onion", "sauce", "oven", "pan", "golden", "tender", "crispy", "fresh", "serve"
+    };
+
+    public enum Format {
+        JSON(new JsonFactory()),
+        SMILE(new SmileFactory()),
+        CBOR(new CBORFactory());
+
+        final JsonFactory factory;
+
+        Format(JsonFactory factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    Format format;
+
+    private ObjectMapper objectMapper;
+    private Page<RecipeResponse> page;
+
+    @Setup
+    public void setup() throws IOException {
+        // Boot's builder customizations that matter for this payload
+        objectMapper = new Jackson2ObjectMapperBuilder()
+                .factory(format.factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        // Instructions of a few hundred words, as in real recipes
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<RecipeResponse> content = IntStream.range(0, pageSize)
+                .mapToObj(i -> new RecipeResponse((long) i, "Recipe " + i, i % 2 == 0, 4,
+                        instructions(random, 200 + random.nextInt(300)),
+                        IntStream.range(0, 8).mapToObj(BenchmarkCatalog::ingredient).toList(),
+                        true, BenchmarkCatalog.OWNER, now, now, 1))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+
+        System.out.printf("%n# Payload: %s, %d recipes: %,d bytes, %,d bytes gzipped%n",
+                format, pageSize, serialize().length, serializeGzipped().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeGzipped() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, page);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String instructions(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,80 @@
+package com.gourmet.recipes.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual request threads under a burst larger than Tomcat's default
+ * 200-thread pool, with the production Hikari pool size of 10. Reports throughput
+ * and the latency distribution (p99 in the SampleTime results).
+ * <p>
+ * Against H2 the database work is CPU-bound, so the difference mostly reflects
+ * where requests queue; point the comparison at MySQL for I/O-bound numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(256)
+public class VirtualThreadsBenchmark {
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    @Param({"10000"})
+    int catalogSize;
+
+    private BenchmarkCatalog catalog;
+    private HttpClient client;
+    private HttpRequest pointRead;
+    private HttpRequest search;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = BenchmarkCatalog.start(catalogSize,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                // All 256 callers must queue on the one pool, not be turned away by a bulkhead
+                "--recipes.bulkheads.enabled=false");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String base = "http://localhost:" + catalog.port() + "/api/recipes";
+        String credentials = BenchmarkCatalog.OWNER + ":" + BenchmarkCatalog.PASSWORD;
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        pointRead = HttpRequest.newBuilder(URI.create(base + "/1")).header("Authorization", authorization).build();
+        search = HttpRequest.newBuilder(URI.create(base + "/search?ingredients=" + BenchmarkCatalog.ingredient(3) + "&size=20"))
+                .header("Authorization", authorization)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        catalog.close();
+    }
+
+    @Benchmark
+    public int pointRead() throws IOException, InterruptedException {
+        return send(pointRead);
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        return send(search);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " for " + request.uri());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,101 @@
+package com.gourmet.recipes.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows latency, in the manner of a gradient limiter: a slow
+ * moving average of request latency stands for the unloaded baseline, a fast one for
+ * the current state. While the current latency stays within {@code tolerance} times
+ * the baseline the limit grows by about its square root per adjustment; once requests
+ * queue (on the connection pool, in the database) latency rises and the limit shrinks
+ * in proportion, down to {@code minLimit}.
+ * <p>
+ * Admission is a CAS on the in-flight counter. Samples that arrive while another
+ * thread is adjusting the limit are dropped rather than waited for.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_SMOOTHING = 0.1;
+    private static final double LONG_SMOOTHING = 0.002;
+    private static final double LIMIT_SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock adjusting = new ReentrantLock();
+
+    private volatile int limit;
+    // Guarded by adjusting
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimatedLimit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Feeds the latency of one admitted request; {@code inFlightAtStart} is how many
+     * requests were running when it was admitted.
+     */
+    void onSample(long rttNanos, int inFlightAtStart) {
+        if (!adjusting.tryLock()) {
+            return;
+        }
+        try {
+            if (longRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+                return;
+            }
+            shortRtt += (rttNanos - shortRtt) * SHORT_SMOOTHING;
+            longRtt += (rttNanos - longRtt) * LONG_SMOOTHING;
+            // After a long overload the baseline itself has crept up; let it recover
+            if (longRtt > 2 * shortRtt) {
+                longRtt *= 0.95;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            // Only grow on evidence: a limit that is barely used says nothing about capacity
+            if (next > estimatedLimit && inFlightAtStart < estimatedLimit / 2) {
+                return;
+            }
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                    estimatedLimit * (1 - LIMIT_SMOOTHING) + next * LIMIT_SMOOTHING));
+            limit = (int) estimatedLimit;
+        } finally {
+            adjusting.unlock();
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
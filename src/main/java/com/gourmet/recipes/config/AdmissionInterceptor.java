@@ -0,0 +1,103 @@
+package com.gourmet.recipes.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gourmet.recipes.exception.ServiceOverloadedException;
+import com.gourmet.recipes.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the recipe API. Each user draws from a token bucket,
+ * and all admitted requests share an {@link AdaptiveConcurrencyLimit} fed with their
+ * latency. A user over their rate gets 429, a request over the limit 503, both at
+ * once and with Retry-After, instead of waiting up to the pool's connection timeout.
+ * <p>
+ * Async requests (streaming exports) hold their permit until they complete but are
+ * not sampled: their duration says nothing about database latency.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    private record Permit(long startNanos, int inFlightAtStart) {}
+
+    private final AdmissionProperties.PerUser perUser;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final long overloadRetryAfterSeconds;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public AdmissionInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        AdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        this.perUser = properties.getPerUser();
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getTolerance());
+        this.overloadRetryAfterSeconds = Math.max(1, concurrency.getRetryAfter().toSeconds());
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(perUser.getIdleExpiry())
+                .maximumSize(perUser.getMaxUsers())
+                .build();
+
+        this.rateLimited = rejections(meterRegistry, "rate");
+        this.shed = rejections(meterRegistry, "overload");
+        Gauge.builder("recipes.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("recipes.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Admitted requests in progress")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async re-dispatches were admitted by their initial dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        String user = request.getRemoteUser() != null ? request.getRemoteUser() : request.getRemoteAddr();
+        long wait = buckets.get(user, k -> new TokenBucket(perUser.getRate(), perUser.getBurst(), now)).tryAcquire(now);
+        if (wait > 0) {
+            rateLimited.increment();
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException("Request rate limit exceeded", seconds);
+        }
+
+        int inFlight = concurrencyLimit.inFlight();
+        if (!concurrencyLimit.tryAcquire()) {
+            shed.increment();
+            throw new ServiceOverloadedException("Service is at capacity", overloadRetryAfterSeconds);
+        }
+        request.setAttribute(PERMIT, new Permit(now, inFlight));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(PERMIT) instanceof Permit permit)) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        concurrencyLimit.release();
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            concurrencyLimit.onSample(System.nanoTime() - permit.startNanos(), permit.inFlightAtStart());
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("recipes.admission.rejected")
+                .description("Requests rejected by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.gourmet.recipes.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Admission control for the recipe API, see {@link AdmissionInterceptor}.
+ */
+@Data
+@ConfigurationProperties(prefix = "recipes.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private PerUser perUser = new PerUser();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class PerUser {
+
+        // Sustained requests per second per user
+        private double rate = 50;
+
+        // Requests a user may send at once after being idle
+        private int burst = 100;
+
+        // Buckets of users idle this long are dropped (and start full again)
+        private Duration idleExpiry = Duration.ofMinutes(10);
+
+        private long maxUsers = 100_000;
+    }
+
+    @Data
+    public static class Concurrency {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 200;
+
+        // How far latency may rise above its baseline before the limit shrinks
+        private double tolerance = 2.0;
+
+        // Retry-After sent with 503 when the limit is reached
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.gourmet.recipes.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded concurrency for one workload class: at most {@code maxConcurrent} callers
+ * inside, at most {@code maxQueue} more waiting (first come, first served) for up to
+ * the queue timeout. Anything beyond is turned away at once, so a flood of one class
+ * holds a bounded number of request threads and cannot starve the others.
+ */
+public class Bulkhead {
+
+    public enum Admission { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrent, int maxQueue, long queueTimeoutNanos) {
+        if (maxConcurrent < 1 || maxQueue < 0) {
+            throw new IllegalArgumentException("Bulkhead needs maxConcurrent >= 1 and maxQueue >= 0");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /** Takes a permit, waiting in the queue if needed; {@link #release()} it only when ADMITTED. */
+    public Admission acquire() {
+        try {
+            // The timed variant honours fairness: no barging past waiting callers
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return Admission.ADMITTED;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                return Admission.QUEUE_FULL;
+            }
+            try {
+                return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)
+                        ? Admission.ADMITTED : Admission.TIMED_OUT;
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Admission.TIMED_OUT;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+}
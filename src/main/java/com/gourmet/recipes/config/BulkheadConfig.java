@@ -0,0 +1,59 @@
+package com.gourmet.recipes.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts {@link BulkheadInterceptor} behind admission control on the recipe API;
+ * switched off with {@code recipes.bulkheads.enabled=false}. The per-workload pools
+ * are set up by {@link BulkheadDataSourceConfig}.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(prefix = "recipes.bulkheads", name = "enabled", matchIfMissing = true)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public BulkheadConfig(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(properties, meterRegistry))
+                .addPathPatterns("/api/recipes/**")
+                // Requests shed by admission control never queue here
+                .order(1);
+    }
+
+    /**
+     * Carries the workload into tasks on Spring Boot's application executor, which
+     * also runs async MVC work such as streaming exports.
+     */
+    @Bean
+    public TaskDecorator workloadTaskDecorator() {
+        return task -> {
+            Workload workload = Workload.current();
+            if (workload == null) {
+                return task;
+            }
+            return () -> {
+                Workload.set(workload);
+                try {
+                    task.run();
+                } finally {
+                    Workload.set(null);
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.gourmet.recipes.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One connection pool per workload that has a {@code pool-size} under
+ * {@code recipes.bulkheads}, routed by {@link WorkloadRoutingDataSource}.
+ * <p>
+ * Not used together with read replicas ({@link DataSourceRoutingConfig}): there
+ * searches and reads already run on the replica pools, apart from writes.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(prefix = "recipes.bulkheads", name = "enabled", matchIfMissing = true)
+@ConditionalOnExpression("'${recipes.datasource.replicas[0].url:}'.isEmpty()")
+public class BulkheadDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource sharedDataSource(DataSourceProperties properties) {
+        HikariDataSource shared = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        shared.setPoolName("shared");
+        return shared;
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public WorkloadRoutingDataSource dataSource(HikariDataSource sharedDataSource, BulkheadProperties properties,
+                                                MeterRegistry meterRegistry) {
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            BulkheadProperties.Pool pool = properties.get(workload);
+            if (pool.getPoolSize() == null) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            sharedDataSource.copyStateTo(config);
+            config.setPoolName(workload.name().toLowerCase());
+            config.setMaximumPoolSize(pool.getPoolSize());
+            if (config.getMinimumIdle() > pool.getPoolSize()) {
+                config.setMinimumIdle(pool.getPoolSize());
+            }
+            if (pool.getConnectionTimeout() != null) {
+                config.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+            }
+            pool.getDataSourceProperties().forEach(config::addDataSourceProperty);
+            // Workload pools aren't beans, so Actuator won't bind their hikaricp.* meters itself
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(workload, new HikariDataSource(config));
+        }
+        return new WorkloadRoutingDataSource(sharedDataSource, pools);
+    }
+}
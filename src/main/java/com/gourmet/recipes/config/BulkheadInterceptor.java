@@ -0,0 +1,129 @@
+package com.gourmet.recipes.config;
+
+import com.gourmet.recipes.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each classified handler inside its workload's {@link Bulkhead} and tags the
+ * thread with the workload for {@link WorkloadRoutingDataSource}. A request the
+ * bulkhead turns away (queue full, or queued past its timeout) gets 503 with
+ * Retry-After.
+ * <p>
+ * Async requests (streaming exports) keep their permit until they complete; the
+ * workload reaches the async thread through {@link BulkheadConfig#workloadTaskDecorator()}.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private record Meters(Timer queueWait, Counter queueFull, Counter timedOut) {}
+
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+    private final Map<Workload, Meters> meters = new EnumMap<>(Workload.class);
+    private final long retryAfterSeconds;
+
+    public BulkheadInterceptor(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        for (Workload workload : Workload.values()) {
+            BulkheadProperties.Pool pool = properties.get(workload);
+            Bulkhead bulkhead = new Bulkhead(pool.getMaxConcurrent(), pool.getMaxQueue(), pool.getQueueTimeout().toNanos());
+            bulkheads.put(workload, bulkhead);
+            meters.put(workload, register(meterRegistry, workload, bulkhead));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Workload workload = workloadOf(handler);
+        if (workload == null) {
+            return true;
+        }
+
+        Meters m = meters.get(workload);
+        long start = System.nanoTime();
+        Bulkhead.Admission admission = bulkheads.get(workload).acquire();
+        if (admission != Bulkhead.Admission.ADMITTED) {
+            (admission == Bulkhead.Admission.QUEUE_FULL ? m.queueFull() : m.timedOut()).increment();
+            throw new ServiceOverloadedException(
+                    "Too many " + workload.name().toLowerCase() + " requests in progress", retryAfterSeconds);
+        }
+        m.queueWait().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        request.setAttribute(PERMIT, workload);
+        Workload.set(workload);
+        return true;
+    }
+
+    // The request thread goes back to the container while the async part runs elsewhere
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Workload.set(null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            Workload.set(null);
+        }
+        if (!(request.getAttribute(PERMIT) instanceof Workload workload)) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        bulkheads.get(workload).release();
+    }
+
+    private static Workload workloadOf(Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return null;
+        }
+        Workload.Of of = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), Workload.Of.class);
+        if (of == null) {
+            of = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), Workload.Of.class);
+        }
+        return of == null ? null : of.value();
+    }
+
+    private static Meters register(MeterRegistry meterRegistry, Workload workload, Bulkhead bulkhead) {
+        String tag = workload.name().toLowerCase();
+        Gauge.builder("recipes.bulkhead.active", bulkhead, Bulkhead::active)
+                .description("Requests inside the bulkhead")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        Gauge.builder("recipes.bulkhead.queued", bulkhead, Bulkhead::queued)
+                .description("Requests waiting to enter the bulkhead")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        Gauge.builder("recipes.bulkhead.max.concurrent", bulkhead, Bulkhead::maxConcurrent)
+                .description("Requests the bulkhead lets in at once")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        Timer queueWait = Timer.builder("recipes.bulkhead.queue.wait")
+                .description("Time admitted requests waited to enter the bulkhead")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        return new Meters(queueWait, rejections(meterRegistry, tag, "queue_full"), rejections(meterRegistry, tag, "timeout"));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String workload, String reason) {
+        return Counter.builder("recipes.bulkhead.rejected")
+                .description("Requests turned away by a bulkhead")
+                .tag("workload", workload)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.gourmet.recipes.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-workload bulkheads, see {@link BulkheadInterceptor} and
+ * {@link WorkloadRoutingDataSource}. A workload with a pool size gets its own
+ * connection pool, inheriting the spring.datasource Hikari settings; without one it
+ * shares spring.datasource with everything unclassified.
+ */
+@Data
+@ConfigurationProperties(prefix = "recipes.bulkheads")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    // Retry-After sent with 503 when a bulkhead turns a request away
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Pool search = new Pool(8, 16, Duration.ofMillis(500), 4, Duration.ofSeconds(2));
+
+    private Pool read = new Pool(32, 64, Duration.ofMillis(250), 4, Duration.ofSeconds(1));
+
+    // Writes may hold two shared connections at once (id blocks come from a sequence
+    // table on an isolated connection), so keep this below half the shared pool
+    private Pool write = new Pool(4, 64, Duration.ofSeconds(2), null, null);
+
+    private Pool export = new Pool(2, 4, Duration.ofSeconds(1), 2, Duration.ofSeconds(2));
+
+    public Pool get(Workload workload) {
+        return switch (workload) {
+            case SEARCH -> search;
+            case READ -> read;
+            case WRITE -> write;
+            case EXPORT -> export;
+        };
+    }
+
+    @Data
+    public static class Pool {
+
+        // Requests handled at once
+        private int maxConcurrent;
+
+        // Requests waiting for a turn beyond that; more are rejected at once
+        private int maxQueue;
+
+        // How long a queued request waits before it is rejected
+        private Duration queueTimeout;
+
+        // Connections in this workload's own pool; null shares spring.datasource
+        private Integer poolSize;
+
+        // Hikari connection timeout of the own pool; null inherits spring.datasource's
+        private Duration connectionTimeout;
+
+        // JDBC driver properties of the own pool only, on top of spring.datasource's
+        private Map<String, String> dataSourceProperties = new LinkedHashMap<>();
+
+        public Pool() {
+        }
+
+        Pool(int maxConcurrent, int maxQueue, Duration queueTimeout, Integer poolSize, Duration connectionTimeout) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.queueTimeout = queueTimeout;
+            this.poolSize = poolSize;
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
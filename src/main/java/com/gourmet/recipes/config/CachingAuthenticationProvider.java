@@ -0,0 +1,75 @@
+package com.gourmet.recipes.config;
+
+import com.gourmet.recipes.service.CredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Answers repeat logins from the {@link CredentialCache} and only falls back to
+ * the wrapped provider (user query + BCrypt) on a miss. Both paths are timed as
+ * {@code recipes.auth}, tagged by cache hit/miss and outcome.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final CredentialCache credentialCache;
+    private final MeterRegistry meterRegistry;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, CredentialCache credentialCache,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.credentialCache = credentialCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || !(credentials instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        UserDetails cached = credentialCache.lookup(username, password).orElse(null);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result =
+                    UsernamePasswordAuthenticationToken.authenticated(cached, null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            stop(sample, "hit", "success");
+            return result;
+        }
+
+        // Taken before the stored hash is read, so a password change committed meanwhile voids the store
+        long epoch = credentialCache.epoch(username);
+        String outcome = "failure";
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            if (result != null && result.getPrincipal() instanceof UserDetails user) {
+                credentialCache.store(username, password, user, epoch);
+                outcome = "success";
+            }
+            return result;
+        } finally {
+            stop(sample, "miss", outcome);
+        }
+    }
+
+    private void stop(Timer.Sample sample, String cache, String outcome) {
+        sample.stop(Timer.builder("recipes.auth")
+                .description("Basic authentication latency")
+                .tag("cache", cache)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gourmet.recipes.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica pool and everything
+ * else to the primary.
+ * <p>
+ * The decision is taken when a connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction's read-only flag is only known after the transaction has begun.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public enum Selection {
+        /** Replicas in turn. */
+        ROUND_ROBIN,
+        /** Replica with the fewest active and waiting connections; ties go round-robin. */
+        LEAST_LOADED
+    }
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Selection selection) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        return selection == Selection.LEAST_LOADED ? leastLoaded(start) : start;
+    }
+
+    // Replica pools are owned here; the primary is closed by its own bean
+    @Override
+    public void close() {
+        new ArrayList<>(replicas).forEach(HikariDataSource::close);
+    }
+
+    private int leastLoaded(int start) {
+        int best = start;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int n = 0; n < replicas.size(); n++) {
+            int i = (start + n) % replicas.size();
+            int load = load(replicas.get(i));
+            if (load < bestLoad) {
+                best = i;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private static int load(HikariDataSource replica) {
+        // Null while a lazily started pool is not running yet
+        HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+}
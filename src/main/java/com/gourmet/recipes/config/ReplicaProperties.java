@@ -0,0 +1,34 @@
+package com.gourmet.recipes.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas used by {@link ReadWriteRoutingDataSource}. The primary keeps its
+ * standard {@code spring.datasource.*} settings; replica pools inherit the primary's
+ * Hikari settings apart from the connection details below.
+ */
+@Data
+@ConfigurationProperties(prefix = "recipes.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private ReadWriteRoutingDataSource.Selection selection = ReadWriteRoutingDataSource.Selection.ROUND_ROBIN;
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        // Falls back to the primary's pool size
+        private Integer maximumPoolSize;
+    }
+}
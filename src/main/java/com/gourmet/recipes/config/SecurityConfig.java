@@ -1,9 +1,12 @@
 package com.gourmet.recipes.config;
 
+import com.gourmet.recipes.service.CredentialCache;
 import com.gourmet.recipes.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import static org.springframework.security.config.Customizer.withDefaults;
@@ -16,9 +19,14 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final CredentialCache credentialCache;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, CredentialCache credentialCache,
+                          MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
+        this.credentialCache = credentialCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -27,18 +35,21 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .httpBasic(withDefaults());
         return http.build();
     }
 
+    // BCrypt runs only on a credential cache miss
     @Bean
-    public DaoAuthenticationProvider authProvider() {
+    public AuthenticationProvider authProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
-        return provider;
+        return new CachingAuthenticationProvider(provider, credentialCache, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,26 @@
+package com.gourmet.recipes.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread. Callers take the
+ * difference of two {@link #current()} readings to attribute statements to a
+ * request or operation. Tests replace it with a recording subclass to enforce
+ * statement budgets.
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public long current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,48 @@
+package com.gourmet.recipes.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Workload classes that get their own {@link Bulkhead} and, optionally, their own
+ * connection pool. The class of the request being handled is tagged on its thread
+ * (and carried into async tasks) so the pool can be picked per connection.
+ */
+public enum Workload {
+
+    /** Filtered and full-text searches, pantry matching. */
+    SEARCH,
+    /** Single recipe reads. */
+    READ,
+    /** Creates, updates, deletes and imports. */
+    WRITE,
+    /** Streaming exports, which hold a connection for the whole download. */
+    EXPORT;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    /** Workload of the request on this thread, null outside classified requests. */
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    static void set(Workload workload) {
+        if (workload == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(workload);
+        }
+    }
+
+    /**
+     * Puts a handler method (or all of a controller's) in a workload class. Handlers
+     * without it pass the bulkheads untouched.
+     */
+    @Target({ElementType.METHOD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Of {
+        Workload value();
+    }
+}
@@ -0,0 +1,39 @@
+package com.gourmet.recipes.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Workload}, so
+ * slow searches exhaust their own pool rather than the one writes depend on.
+ * Unclassified work (authentication, index rebuilds, workloads without a pool of
+ * their own) uses the shared pool.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<HikariDataSource> pools;
+
+    public WorkloadRoutingDataSource(DataSource shared, Map<Workload, HikariDataSource> pools) {
+        this.pools = new ArrayList<>(pools.values());
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(shared);
+    }
+
+    // Unknown or null keys fall back to the default target
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Workload.current();
+    }
+
+    // Workload pools are owned here; the shared pool is closed by its own bean
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -1,30 +1,59 @@
 package com.gourmet.recipes.controller;
 
 import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.event.PasswordChangedEvent;
 import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.service.RecipeCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecipeCache recipeCache;
 
-    public AdminController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AdminController(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           ApplicationEventPublisher eventPublisher, RecipeCache recipeCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.recipeCache = recipeCache;
     }
 
     // Reset any user's password
     @PutMapping("/users/{username}/reset-password")
+    @Transactional
     public ResponseEntity<String> resetPassword(@PathVariable String username, @RequestBody String newPassword) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        // The old password must stop working once this commits, not when its cache entry expires
+        eventPublisher.publishEvent(new PasswordChangedEvent(username));
         return ResponseEntity.ok("Password reset successfully for " + username);
     }
+
+    // Recipe cache counters, for sizing recipes.cache.recipes.*
+    @GetMapping("/caches/recipes")
+    public ResponseEntity<Map<String, Object>> recipeCacheStats() {
+        CacheStats stats = recipeCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", recipeCache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        return ResponseEntity.ok(body);
+    }
 }
@@ -0,0 +1,134 @@
+package com.gourmet.recipes.controller;
+
+import com.gourmet.recipes.exception.InvalidInputException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Entity tags for conditional GETs, built from cheap version lookups so that
+ * If-None-Match can be answered before the real work is done. Recipe tags sent
+ * back as If-Match make updates optimistic.
+ * <p>
+ * Every tag names the negotiated format, as JSON, Smile and CBOR bodies differ, and
+ * is weak: Tomcat only compresses responses without a strong tag, and a gzipped body
+ * would need a tag of its own.
+ */
+final class ETags {
+
+    // Clients may keep responses but must revalidate; shared caches must not (results depend on the viewer)
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // The request headers a tagged response was chosen by
+    static final String[] VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+
+    // As registered in MessageFormatConfig: JSON first, so wildcards get it
+    private enum Format {
+        JSON(MediaType.APPLICATION_JSON, "json"),
+        SMILE(MediaType.parseMediaType("application/x-jackson-smile"), "smile"),
+        CBOR(MediaType.parseMediaType("application/cbor"), "cbor");
+
+        final MediaType mediaType;
+        final String tag;
+
+        Format(MediaType mediaType, String tag) {
+            this.mediaType = mediaType;
+            this.tag = tag;
+        }
+    }
+
+    private ETags() {
+    }
+
+    /**
+     * The tag name of the format Spring MVC will write for an Accept header: the
+     * first supported type in the client's order of preference, JSON when the
+     * header is absent or unparseable.
+     */
+    static String format(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON.tag;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Format.JSON.tag;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : Format.values()) {
+                if (type.isCompatibleWith(format.mediaType)) {
+                    return format.tag;
+                }
+            }
+        }
+        return Format.JSON.tag;
+    }
+
+    // Changes only when the recipe's version does
+    static String recipe(long id, long version, String format) {
+        return "W/\"" + id + "-" + version + "-" + format + "\"";
+    }
+
+    // Any committed write may (but need not) change a search result
+    static String catalog(long catalogVersion, String username, boolean isAdmin, String format) {
+        String viewer = Integer.toHexString((username + (isAdmin ? "#admin" : "")).hashCode());
+        return "W/\"" + catalogVersion + "-" + viewer + "-" + format + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header value matches {@code etag}, using the weak
+     * comparison RFC 9110 prescribes for it.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version named by an If-Match header for recipe {@code id}; null when the
+     * header is absent or "*", which impose no version.
+     * <p>
+     * Recipe tags are weak only so the body may be compressed; they still name one
+     * version, which is all the update compares, so they are accepted here in any format.
+     */
+    static Long recipeVersion(String ifMatch, long id) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = opaque(ifMatch.trim());
+        String prefix = "\"" + id + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            String version = tag.substring(prefix.length(), tag.length() - 1);
+            int format = version.indexOf('-');
+            try {
+                return Long.parseLong(format < 0 ? version : version.substring(0, format));
+            } catch (NumberFormatException ignored) {
+                // falls through to the error below
+            }
+        }
+        throw new InvalidInputException(
+                "If-Match must be the ETag of recipe " + id + ", e.g. " + recipe(id, 0, Format.JSON.tag));
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
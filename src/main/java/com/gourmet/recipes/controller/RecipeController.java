@@ -1,17 +1,37 @@
 package com.gourmet.recipes.controller;
 
+import com.gourmet.recipes.config.Workload;
+import com.gourmet.recipes.dto.BulkRecipeRequest;
+import com.gourmet.recipes.dto.BulkResult;
+import com.gourmet.recipes.dto.ImportReport;
+import com.gourmet.recipes.dto.KeysetSlice;
+import com.gourmet.recipes.dto.PantryMatchResponse;
+import com.gourmet.recipes.dto.PantryRequest;
 import com.gourmet.recipes.dto.RecipeDTO;
-import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.exception.UnauthorizedActionException;
+import com.gourmet.recipes.search.CatalogVersion;
+import com.gourmet.recipes.search.KeysetCursor;
+import com.gourmet.recipes.search.SearchMetrics;
+import com.gourmet.recipes.service.RecipeExportService;
+import com.gourmet.recipes.service.RecipeImportService;
 import com.gourmet.recipes.service.RecipeService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,45 +40,112 @@ import java.util.List;
 public class RecipeController {
 
     private final RecipeService service;
+    private final RecipeImportService importService;
+    private final RecipeExportService exportService;
+    private final SearchMetrics searchMetrics;
+    private final CatalogVersion catalogVersion;
 
     // ===== Response Wrapper =====
     record ApiResponse<T>(String message, T data) {}
 
     // CREATE
     @PostMapping
-    public ResponseEntity<ApiResponse<Recipe>> createRecipe(
+    @Workload.Of(Workload.WRITE)
+    public ResponseEntity<ApiResponse<RecipeResponse>> createRecipe(
             @Valid @RequestBody RecipeDTO dto,
             Authentication authentication) {
 
         String username = authentication.getName();
-        Recipe recipe = service.createRecipe(username, dto);
+        RecipeResponse recipe = service.createRecipe(username, dto);
         return ResponseEntity.ok(new ApiResponse<>("Recipe created successfully", recipe));
     }
 
-    // READ BY ID
+    // BULK IMPORT (one RecipeDTO per line)
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Workload.Of(Workload.WRITE)
+    public ResponseEntity<ApiResponse<ImportReport>> importRecipes(
+            InputStream body,
+            @RequestParam(required = false) Integer batchSize,
+            Authentication authentication) throws IOException {
+
+        ImportReport report = importService.importRecipes(authentication.getName(), body, batchSize);
+        return ResponseEntity.ok(new ApiResponse<>("Recipes imported", report));
+    }
+
+    // STREAMING EXPORT (NDJSON or CSV)
+    @GetMapping("/export")
+    @Workload.Of(Workload.EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportRecipes(
+            @RequestParam(defaultValue = "MINE") RecipeExportService.Scope scope,
+            @RequestParam(defaultValue = "NDJSON") RecipeExportService.Format format,
+            Authentication authentication) {
+
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (scope == RecipeExportService.Scope.ALL && !isAdmin) {
+            throw new UnauthorizedActionException("Only admins can export all recipes");
+        }
+
+        String username = authentication.getName();
+        StreamingResponseBody body = out -> exportService.exportRecipes(username, scope, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes." + format.extension + "\"")
+                .body(body);
+    }
+
+    // READ BY ID (If-None-Match is checked against the version before the recipe is loaded)
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Recipe>> getRecipeById(@PathVariable Long id,
-                                                             Authentication auth) {
+    @Workload.Of(Workload.READ)
+    public ResponseEntity<ApiResponse<RecipeResponse>> getRecipeById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication auth) {
         boolean isAdmin = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Recipe recipe = service.getRecipeById(id, auth.getName(), isAdmin);
-        return ResponseEntity.ok(new ApiResponse<>("Recipe fetched successfully", recipe));
+        String format = ETags.format(accept);
+
+        if (ifNoneMatch != null) {
+            String etag = ETags.recipe(id, service.getRecipeVersion(id, auth.getName(), isAdmin), format);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag).cacheControl(ETags.REVALIDATE).varyBy(ETags.VARY).build();
+            }
+        }
+
+        RecipeResponse recipe = service.getRecipeById(id, auth.getName(), isAdmin);
+        return ResponseEntity.ok()
+                .eTag(ETags.recipe(id, recipe.version(), format))
+                .cacheControl(ETags.REVALIDATE)
+                .varyBy(ETags.VARY)
+                .body(new ApiResponse<>("Recipe fetched successfully", recipe));
     }
 
-    // UPDATE
-    @PreAuthorize("hasRole('ADMIN') or #auth.name == @recipeService.getRecipeOwnerUsername(#id)")
+    // UPDATE (optimistic with If-Match: the recipe's ETag; 409 when it has changed since)
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<Recipe>> updateRecipe(
+    @Workload.Of(Workload.WRITE)
+    public ResponseEntity<ApiResponse<RecipeResponse>> updateRecipe(
             @PathVariable Long id,
             @RequestBody RecipeDTO recipeDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             Authentication auth) {
 
-        Recipe updated = service.updateRecipe(auth.getName(), id, recipeDto);
-        return ResponseEntity.ok(new ApiResponse<>("Recipe updated successfully", updated));
+        // Ownership is checked by the service, for the optimistic path inside the UPDATE itself
+        Long version = ETags.recipeVersion(ifMatch, id);
+        RecipeResponse updated = version == null
+                ? service.updateRecipe(auth.getName(), id, recipeDto)
+                : service.updateRecipe(auth.getName(), id, recipeDto, version);
+        return ResponseEntity.ok()
+                .eTag(ETags.recipe(id, updated.version(), ETags.format(accept)))
+                .varyBy(ETags.VARY)
+                .body(new ApiResponse<>("Recipe updated successfully", updated));
     }
 
     // DELETE
     @DeleteMapping("/{id}")
+    @Workload.Of(Workload.WRITE)
     public ResponseEntity<ApiResponse<Void>> deleteRecipe(
             @PathVariable Long id,
             Authentication authentication) {
@@ -67,15 +154,34 @@ public class RecipeController {
         return ResponseEntity.ok(new ApiResponse<>("Recipe deleted successfully", null));
     }
 
+    // ===== BULK (ids or a search filter; only the caller's own recipes are affected) =====
+    @PostMapping("/bulk/delete")
+    @Workload.Of(Workload.WRITE)
+    public ResponseEntity<ApiResponse<BulkResult>> deleteRecipes(
+            @RequestBody BulkRecipeRequest request,
+            Authentication authentication) {
+
+        BulkResult result = service.deleteRecipes(authentication.getName(), request);
+        return ResponseEntity.ok(new ApiResponse<>("Recipes deleted successfully", result));
+    }
+
+    @PostMapping("/bulk/visibility")
+    @Workload.Of(Workload.WRITE)
+    public ResponseEntity<ApiResponse<BulkResult>> changeVisibility(
+            @RequestBody BulkRecipeRequest request,
+            Authentication authentication) {
+
+        BulkResult result = service.changeVisibility(authentication.getName(), request);
+        return ResponseEntity.ok(new ApiResponse<>("Recipe visibility updated successfully", result));
+    }
+
     // ===== SEARCH / FILTER =====
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<Page<Recipe>>> searchRecipes(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) Boolean vegetarian,
-            @RequestParam(required = false) Integer servings,
-            @RequestParam(required = false) List<String> ingredients,
-            @RequestParam(required = false) List<String> excludedIngredients,
-            @RequestParam(required = false) String text,
+    @Workload.Of(Workload.SEARCH)
+    public ResponseEntity<ApiResponse<Page<RecipeResponse>>> searchRecipes(
+            @ParameterObject RecipeSearchCriteria criteria,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             Authentication authentication,
             Pageable pageable) {
 
@@ -84,12 +190,72 @@ public class RecipeController {
                 .stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
-        Page<Recipe> result = service.searchRecipes(
-                name, vegetarian, servings,
-                ingredients, excludedIngredients, text,
-                authentication.getName(), isAdmin, pageable
-        );
+        // Taken before searching, so a concurrent write can only make the tag older than the result
+        String etag = ETags.catalog(catalogVersion.current(), username, isAdmin, ETags.format(accept));
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).cacheControl(ETags.REVALIDATE).varyBy(ETags.VARY).build();
+        }
+
+        Page<RecipeResponse> result = searchMetrics.record("page", criteria, () -> service.searchRecipes(
+                criteria, authentication.getName(), isAdmin, pageable
+        ));
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(ETags.REVALIDATE)
+                .varyBy(ETags.VARY)
+                .body(new ApiResponse<>("Recipes fetched successfully", result));
+    }
+
+    // ===== PANTRY MATCHING (recipes ranked by how much of them the pantry covers) =====
+    @PostMapping("/pantry")
+    @Workload.Of(Workload.SEARCH)
+    public ResponseEntity<ApiResponse<List<PantryMatchResponse>>> matchPantry(
+            @Valid @RequestBody PantryRequest pantry,
+            Authentication authentication) {
+
+        boolean isAdmin = authentication.getAuthorities()
+                .stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        List<PantryMatchResponse> matches = service.matchPantry(
+                pantry.getIngredients(), authentication.getName(), isAdmin, pantry.getLimit());
+        return ResponseEntity.ok(new ApiResponse<>("Recipes matched successfully", matches));
+    }
+
+    // ===== KEYSET SEARCH (no total count, opaque continuation cursor) =====
+    @GetMapping("/search/scroll")
+    @Workload.Of(Workload.SEARCH)
+    public ResponseEntity<ApiResponse<KeysetSlice<RecipeResponse>>> scrollRecipes(
+            @ParameterObject RecipeSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "CREATED_AT") KeysetCursor.SortKey sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication) {
+
+        boolean isAdmin = authentication.getAuthorities()
+                .stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        String etag = ETags.catalog(
+                catalogVersion.current(), authentication.getName(), isAdmin, ETags.format(accept));
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).cacheControl(ETags.REVALIDATE).varyBy(ETags.VARY).build();
+        }
+
+        KeysetSlice<RecipeResponse> result = searchMetrics.record("scroll", criteria, () -> service.scrollRecipes(
+                criteria, authentication.getName(), isAdmin, cursor, sortBy, direction, size
+        ));
 
-        return ResponseEntity.ok(new ApiResponse<>("Recipes fetched successfully", result));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(ETags.REVALIDATE)
+                .varyBy(ETags.VARY)
+                .body(new ApiResponse<>("Recipes fetched successfully", result));
     }
 }
@@ -0,0 +1,20 @@
+package com.gourmet.recipes.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of the bulk endpoints: the recipes to act on, given either as ids or as a
+ * search filter. Only the caller's own recipes are ever affected.
+ */
+@Data
+public class BulkRecipeRequest {
+
+    private List<Long> ids;
+
+    private RecipeSearchCriteria filter;
+
+    // Target visibility; required by POST /api/recipes/bulk/visibility
+    private Boolean isPublic;
+}
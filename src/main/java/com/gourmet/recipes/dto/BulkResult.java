@@ -0,0 +1,8 @@
+package com.gourmet.recipes.dto;
+
+/**
+ * Outcome of a bulk operation: how many of the caller's recipes the ids or filter
+ * selected, and how many rows were actually deleted or changed.
+ */
+public record BulkResult(int matched, int affected) {
+}
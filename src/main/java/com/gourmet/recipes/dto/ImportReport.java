@@ -0,0 +1,12 @@
+package com.gourmet.recipes.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: counts plus one entry per rejected record.
+ * Line numbers are 1-based positions in the NDJSON body.
+ */
+public record ImportReport(int total, int imported, int failed, List<RecordError> errors) {
+
+    public record RecordError(long line, String message) {}
+}
@@ -0,0 +1,10 @@
+package com.gourmet.recipes.dto;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated chunk of results. There is no total count; pass
+ * {@code nextCursor} back to continue while {@code hasNext} is true.
+ */
+public record KeysetSlice<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,14 @@
+package com.gourmet.recipes.dto;
+
+import java.util.List;
+
+/**
+ * A recipe with how much of it the pantry covers and what is still missing.
+ */
+public record PantryMatchResponse(
+        RecipeResponse recipe,
+        long matched,
+        long total,
+        double coverage,
+        List<String> missing) {
+}
@@ -0,0 +1,23 @@
+package com.gourmet.recipes.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/recipes/pantry: what the user has at hand.
+ */
+@Data
+public class PantryRequest {
+
+    @NotEmpty(message = "At least one ingredient is required")
+    private List<@NotBlank(message = "Ingredient name cannot be blank") String> ingredients;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private int limit = 20;
+}
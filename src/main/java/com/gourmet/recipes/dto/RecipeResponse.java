@@ -0,0 +1,22 @@
+package com.gourmet.recipes.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable read model of a recipe, detached from the persistence context.
+ * The owner is reduced to a username so nothing lazy is reachable from here.
+ */
+public record RecipeResponse(
+        Long id,
+        String name,
+        boolean vegetarian,
+        int servings,
+        String instructions,
+        List<String> ingredients,
+        boolean isPublic,
+        String owner,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        long version) {
+}
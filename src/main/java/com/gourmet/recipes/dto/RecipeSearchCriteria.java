@@ -0,0 +1,41 @@
+package com.gourmet.recipes.dto;
+
+import com.gourmet.recipes.search.CountMode;
+import com.gourmet.recipes.search.IngredientMatch;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Filters accepted by /api/recipes/search, bound from the query string.
+ */
+@Data
+public class RecipeSearchCriteria {
+
+    private String name;
+
+    private Boolean vegetarian;
+
+    private Integer servings;
+
+    private List<String> ingredients;
+
+    private List<String> excludedIngredients;
+
+    private String text;
+
+    // ANY keeps the historical behaviour of the ingredients filter
+    private IngredientMatch ingredientMatch = IngredientMatch.ANY;
+
+    // Match name/text against the full-text index and order by relevance
+    private boolean ranked;
+
+    // How the page total is computed; EXACT runs a count query on every page
+    private CountMode countMode = CountMode.EXACT;
+
+    // Add vegetarian, servings and top ingredient counts over all matches to the page
+    private boolean facets;
+
+    // How many ingredients the ingredient facet lists
+    private int facetSize = 10;
+}
@@ -0,0 +1,13 @@
+package com.gourmet.recipes.dto;
+
+import java.util.List;
+
+/**
+ * Counts over every recipe matching a search, not just the returned page. Vegetarian
+ * and servings list each value (zero counts included), ingredients only the most
+ * frequent, by lower-cased name.
+ */
+public record SearchFacets(List<Count> vegetarian, List<Count> servings, List<Count> ingredients) {
+
+    public record Count(String value, long count) {}
+}
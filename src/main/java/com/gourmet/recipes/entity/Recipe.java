@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -21,8 +23,10 @@ import java.util.Set;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Recipe {
 
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -45,11 +49,19 @@ public class Recipe {
     @Column(name = "is_public", nullable = false)
     private boolean isPublic = true;
 
+    // Bumped on every update, including ingredient changes; the ETag of recipe reads
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     @ToString.Exclude
     private User user;
 
+    // Every update sets updatedAt, which already bumps the version; excluding the collection
+    // keeps an ingredient change after an optimistic update from bumping it a second time
+    @OptimisticLock(excluded = true)
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "recipe_ingredient",
@@ -62,21 +74,30 @@ public class Recipe {
 
     public void setUser(User user) {
         this.user = user;
-        if (user != null && !user.getRecipes().contains(this)) {
+        // Don't load every recipe of the owner just to keep an unloaded collection in sync
+        if (user != null && Hibernate.isInitialized(user.getRecipes()) && !user.getRecipes().contains(this)) {
             user.getRecipes().add(this);
         }
     }
 
     public void addIngredient(Ingredient ingredient) {
         ingredients.add(ingredient);
-        if (!ingredient.getRecipes().contains(this)) {
+        // Like setUser: an unloaded inverse side would read every recipe using the ingredient
+        if (hasLoadedRecipes(ingredient) && !ingredient.getRecipes().contains(this)) {
             ingredient.getRecipes().add(this);
         }
     }
 
     public void removeIngredient(Ingredient ingredient) {
         ingredients.remove(ingredient);
-        ingredient.getRecipes().remove(this);
+        if (hasLoadedRecipes(ingredient)) {
+            ingredient.getRecipes().remove(this);
+        }
+    }
+
+    // False for ingredient references the resolver has not initialized yet
+    private static boolean hasLoadedRecipes(Ingredient ingredient) {
+        return Hibernate.isInitialized(ingredient) && Hibernate.isInitialized(ingredient.getRecipes());
     }
 
     // ===== Lifecycle Callbacks =====
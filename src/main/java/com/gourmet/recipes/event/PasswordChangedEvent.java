@@ -0,0 +1,7 @@
+package com.gourmet.recipes.event;
+
+/**
+ * Published when a user's password has been changed.
+ */
+public record PasswordChangedEvent(String username) {
+}
@@ -0,0 +1,7 @@
+package com.gourmet.recipes.event;
+
+/**
+ * Published by RecipeService after a recipe has been deleted.
+ */
+public record RecipeDeletedEvent(Long recipeId) {
+}
@@ -0,0 +1,23 @@
+package com.gourmet.recipes.event;
+
+import com.gourmet.recipes.entity.Ingredient;
+import com.gourmet.recipes.entity.Recipe;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by RecipeService after a recipe has been created or updated.
+ * Carries a detached snapshot so listeners never touch the persistence context.
+ */
+public record RecipeSavedEvent(Long recipeId, String name, String instructions, Set<String> ingredients,
+                               boolean isPublic, String owner, boolean vegetarian, int servings) {
+
+    public static RecipeSavedEvent of(Recipe recipe) {
+        Set<String> names = recipe.getIngredients().stream()
+                .map(Ingredient::getName)
+                .collect(Collectors.toUnmodifiableSet());
+        return new RecipeSavedEvent(recipe.getId(), recipe.getName(), recipe.getInstructions(), names,
+                recipe.isPublic(), recipe.getUser().getUsername(), recipe.isVegetarian(), recipe.getServings());
+    }
+}
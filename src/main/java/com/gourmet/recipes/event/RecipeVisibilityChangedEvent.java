@@ -0,0 +1,10 @@
+package com.gourmet.recipes.event;
+
+import java.util.List;
+
+/**
+ * Published by RecipeService after a bulk change made the recipes public or private.
+ * Nothing else about them changed.
+ */
+public record RecipeVisibilityChangedEvent(List<Long> recipeIds, boolean isPublic) {
+}
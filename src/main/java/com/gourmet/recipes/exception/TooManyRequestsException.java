@@ -0,0 +1,18 @@
+package com.gourmet.recipes.exception;
+
+/**
+ * A user exceeded their request rate; they may retry after {@code retryAfterSeconds}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,10 @@
+package com.gourmet.recipes.exception;
+
+/**
+ * An optimistic update found the recipe at a different version than the client read.
+ */
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
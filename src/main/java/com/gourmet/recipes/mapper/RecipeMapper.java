@@ -1,9 +1,11 @@
 package com.gourmet.recipes.mapper;
 
 import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
 import com.gourmet.recipes.entity.Ingredient;
 import com.gourmet.recipes.entity.Recipe;
-import com.gourmet.recipes.repository.IngredientRepository;
+import com.gourmet.recipes.search.IngredientIndex;
+import com.gourmet.recipes.service.IngredientResolver;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -14,21 +16,24 @@ import java.util.stream.Collectors;
 public interface RecipeMapper {
 
     @Mapping(target = "ingredients", source = "dto.ingredients")
-    Recipe toEntity(RecipeDTO dto, @Context IngredientRepository ingredientRepo);
+    @Mapping(target = "id", ignore = true)        // generated on persist
+    @Mapping(target = "user", ignore = true)      // ownership handled in service
+    @Mapping(target = "createdAt", ignore = true) // set by RecipeService on create
+    @Mapping(target = "updatedAt", ignore = true) // likewise
+    @Mapping(target = "version", ignore = true)   // optimistic lock, managed by Hibernate
+    Recipe toEntity(RecipeDTO dto, @Context IngredientResolver ingredientResolver);
 
     @Mapping(target = "ingredients", source = "recipe.ingredients")
     RecipeDTO toDto(Recipe recipe);
 
-    // === Custom ingredient mapping using repo ===
-    default Set<Ingredient> mapIngredients(List<String> names, @Context IngredientRepository ingredientRepo) {
+    @Mapping(target = "owner", source = "user.username")
+    @Mapping(target = "isPublic", source = "public")
+    RecipeResponse toResponse(Recipe recipe);
+
+    // === Custom ingredient mapping, resolved in bulk ===
+    default Set<Ingredient> mapIngredients(List<String> names, @Context IngredientResolver ingredientResolver) {
         if (names == null) return null;
-        return names.stream()
-                .map(name -> ingredientRepo.findByName(name).orElseGet(() -> {
-                    Ingredient ing = new Ingredient();
-                    ing.setName(name);
-                    return ing;
-                }))
-                .collect(Collectors.toSet());
+        return ingredientResolver.resolve(names);
     }
 
     default List<String> mapIngredientNames(Set<Ingredient> ingredients) {
@@ -38,11 +43,44 @@ public interface RecipeMapper {
                 .collect(Collectors.toList());
     }
 
-    // update an existing recipe in place
+    // update an existing recipe in place; ingredients are applied as a difference
+    default void updateRecipeFromDto(RecipeDTO dto, Recipe recipe, IngredientResolver ingredientResolver) {
+        updateRecipeFields(dto, recipe);
+        syncIngredients(dto.getIngredients(), recipe, ingredientResolver);
+    }
+
     @Mapping(target = "id", ignore = true)        // don’t overwrite ID
     @Mapping(target = "user", ignore = true)      // ownership handled in service
     @Mapping(target = "createdAt", ignore = true) // don’t reset created date
     @Mapping(target = "updatedAt", ignore = true) // we’ll set manually
+    @Mapping(target = "ingredients", ignore = true) // see syncIngredients
+    @Mapping(target = "version", ignore = true)   // optimistic lock, managed by Hibernate
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
-    void updateRecipeFromDto(RecipeDTO dto, @MappingTarget Recipe recipe, @Context IngredientRepository ingredientRepo);
+    void updateRecipeFields(RecipeDTO dto, @MappingTarget Recipe recipe);
+
+    /**
+     * Brings the recipe's (loaded) ingredients in line with {@code names} by set difference,
+     * comparing normalized names as IngredientResolver does. An unchanged list leaves the collection
+     * untouched and resolves nothing; otherwise only removed ingredients are dropped and
+     * only added names resolved, so just those join rows are written.
+     */
+    default void syncIngredients(List<String> names, Recipe recipe, IngredientResolver ingredientResolver) {
+        if (names == null) return;
+        Set<String> wanted = names.stream().map(IngredientIndex::normalize).collect(Collectors.toSet());
+        Set<String> stored = recipe.getIngredients().stream()
+                .map(ingredient -> IngredientIndex.normalize(ingredient.getName()))
+                .collect(Collectors.toSet());
+        if (wanted.equals(stored)) return;
+
+        // Through the entity helpers, which keep both sides of the association in step
+        List.copyOf(recipe.getIngredients()).stream()
+                .filter(ingredient -> !wanted.contains(IngredientIndex.normalize(ingredient.getName())))
+                .forEach(recipe::removeIngredient);
+        List<String> added = names.stream()
+                .filter(name -> !stored.contains(IngredientIndex.normalize(name)))
+                .toList();
+        if (!added.isEmpty()) {
+            ingredientResolver.resolve(added).forEach(recipe::addIngredient);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * Id/name pair of an ingredient without the entity and its recipes.
+ */
+public interface IngredientEntry {
+
+    Long getId();
+
+    String getName();
+}
@@ -2,9 +2,19 @@ package com.gourmet.recipes.repository;
 
 import com.gourmet.recipes.entity.Ingredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
     Optional<Ingredient> findByName(String name);
+
+    // Resolve many names in one round trip
+    List<Ingredient> findByNameIn(Collection<String> names);
+
+    // Id and name of every ingredient, used to warm the ingredient dictionary
+    @Query("select i.id as id, i.name as name from Ingredient i")
+    List<IngredientEntry> findAllEntries();
 }
@@ -0,0 +1,11 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * How many of a recipe's ingredients a pantry covers.
+ */
+public record PantryScore(Long recipeId, long matched, long total) {
+
+    public double coverage() {
+        return total == 0 ? 0 : (double) matched / total;
+    }
+}
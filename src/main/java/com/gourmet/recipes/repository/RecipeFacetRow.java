@@ -0,0 +1,7 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * The columns search facets are counted on.
+ */
+public record RecipeFacetRow(Long id, boolean vegetarian, int servings) {
+}
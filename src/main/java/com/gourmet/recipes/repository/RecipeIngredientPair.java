@@ -0,0 +1,12 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * Flat (recipe id, ingredient name) row of the recipe_ingredient join,
+ * used to rebuild in-memory indexes without loading entities.
+ */
+public interface RecipeIngredientPair {
+
+    Long getRecipeId();
+
+    String getIngredientName();
+}
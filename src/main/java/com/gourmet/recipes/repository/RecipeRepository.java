@@ -2,16 +2,28 @@ package com.gourmet.recipes.repository;
 
 import com.gourmet.recipes.entity.Recipe;
 import com.gourmet.recipes.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecificationExecutor<Recipe> {
+public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecificationExecutor<Recipe>, RecipeRepositoryCustom {
 
     // Get recipes of a specific user
     List<Recipe> findByUser(User owner);
@@ -22,4 +34,100 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecif
     // Fetch recipe by ID including ingredients (avoids N+1 problem)
     @EntityGraph(attributePaths = "ingredients")
     Optional<Recipe> findById(Long id);
-}
\ No newline at end of file
+
+    // Every recipe/ingredient link, used to rebuild the ingredient index at startup
+    @Query("select r.id as recipeId, i.name as ingredientName from Recipe r join r.ingredients i")
+    List<RecipeIngredientPair> findAllRecipeIngredientPairs();
+
+    // Facet columns of every recipe, used to rebuild the facet index at startup
+    @Query("select new com.gourmet.recipes.repository.RecipeFacetRow(r.id, r.vegetarian, r.servings) from Recipe r")
+    List<RecipeFacetRow> findAllFacetRows();
+
+    // Visibility of every recipe, used to rebuild the visibility index at startup
+    @Query("select new com.gourmet.recipes.repository.RecipeVisibility(r.id, r.isPublic, r.user.username) from Recipe r")
+    List<RecipeVisibility> findAllVisibility();
+
+    /**
+     * Pantry matching straight from the join table, best coverage first; only used
+     * while the in-memory indexes warm up. {@code pantry} must be normalized names, which
+     * is how ingredient names are stored, so the name column is compared as is and the
+     * candidate recipes come from uk_ingredient_name through the join table.
+     */
+    @Query("select new com.gourmet.recipes.repository.PantryScore(r.id, "
+            + "sum(case when i.name in :pantry then 1 else 0 end), count(i)) "
+            + "from Recipe r join r.ingredients i "
+            + "where r.id in (select m.id from Recipe m join m.ingredients mi where mi.name in :pantry) "
+            + "and (:isAdmin = true or r.isPublic = true or r.user.username = :username) "
+            + "group by r.id "
+            + "order by sum(case when i.name in :pantry then 1 else 0 end) * 1.0 / count(i) desc, "
+            + "sum(case when i.name in :pantry then 1 else 0 end) desc, r.id")
+    List<PantryScore> findPantryScores(@Param("pantry") Collection<String> pantry,
+                                       @Param("username") String username,
+                                       @Param("isAdmin") boolean isAdmin,
+                                       Pageable pageable);
+
+    // Name and instructions of every recipe, used to rebuild the full-text index at startup
+    @Query("select r.id as id, r.name as name, r.instructions as instructions from Recipe r")
+    List<RecipeTextRow> findAllTextRows();
+
+    @EntityGraph(attributePaths = "ingredients")
+    List<Recipe> findByIdIn(Collection<Long> ids);
+
+    // Answers conditional GETs without loading the recipe graph
+    @Query("select new com.gourmet.recipes.repository.RecipeVersion(r.version, r.isPublic, r.user.username) "
+            + "from Recipe r where r.id = :id")
+    Optional<RecipeVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Optimistic update of the recipe's own columns in one statement: applies only while
+     * the recipe is still at {@code version} and owned by {@code username}, and bumps the
+     * version. Null name/instructions keep the stored values, as in the mapper update.
+     * Returns 0 when any of the conditions fails.
+     */
+    @Modifying
+    @Query("update Recipe r set r.name = coalesce(:name, r.name), r.vegetarian = :vegetarian, "
+            + "r.servings = :servings, r.instructions = coalesce(:instructions, r.instructions), "
+            + "r.isPublic = :isPublic, r.updatedAt = :updatedAt, r.version = r.version + 1 "
+            + "where r.id = :id and r.version = :version "
+            + "and r.user.id = (select u.id from User u where u.username = :username)")
+    int updateIfCurrent(@Param("id") Long id,
+                        @Param("version") long version,
+                        @Param("username") String username,
+                        @Param("name") String name,
+                        @Param("vegetarian") boolean vegetarian,
+                        @Param("servings") int servings,
+                        @Param("instructions") String instructions,
+                        @Param("isPublic") boolean isPublic,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    // ===== Set-based bulk writes; ownership is part of the WHERE clause =====
+
+    // Hibernate deletes the recipe_ingredient rows of the same recipes in a statement of its own
+    @Modifying
+    @Query("delete from Recipe r where r.id in :ids "
+            + "and r.user.id = (select u.id from User u where u.username = :username)")
+    int deleteOwned(@Param("ids") Collection<Long> ids, @Param("username") String username);
+
+    @Modifying
+    @Query("update Recipe r set r.isPublic = :isPublic, r.updatedAt = :updatedAt, r.version = r.version + 1 "
+            + "where r.id in :ids and r.isPublic <> :isPublic "
+            + "and r.user.id = (select u.id from User u where u.username = :username)")
+    int updateVisibilityOwned(@Param("ids") Collection<Long> ids,
+                              @Param("username") String username,
+                              @Param("isPublic") boolean isPublic,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+
+    // ===== Cursor streams for export; must be consumed inside a transaction =====
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select r from Recipe r where r.user.username = :username order by r.id")
+    Stream<Recipe> streamByOwner(@Param("username") String username);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select r from Recipe r where r.isPublic = true order by r.id")
+    Stream<Recipe> streamPublic();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select r from Recipe r order by r.id")
+    Stream<Recipe> streamAll();
+}
@@ -0,0 +1,30 @@
+package com.gourmet.recipes.repository;
+
+import com.gourmet.recipes.entity.Recipe;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Specification queries that Spring Data's executor does not offer.
+ */
+public interface RecipeRepositoryCustom {
+
+    // Ids of the matching recipes, without loading the entities
+    List<Long> findIds(Specification<Recipe> spec);
+
+    // First matching recipes in sort order, without a count query
+    List<Recipe> findLimited(Specification<Recipe> spec, Sort sort, int limit);
+
+    // One page of matching recipes, without a count query
+    List<Recipe> findPageContent(Specification<Recipe> spec, Pageable pageable);
+
+    // Matching recipes per value of a basic attribute, e.g. "servings"
+    <T> Map<T, Long> countBy(Specification<Recipe> spec, String attribute, Class<T> type);
+
+    // Most frequent (stored, so normalized) ingredient names among matching recipes, most frequent first
+    Map<String, Long> countTopIngredients(Specification<Recipe> spec, int limit);
+}
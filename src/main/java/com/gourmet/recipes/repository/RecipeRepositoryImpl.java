@@ -0,0 +1,121 @@
+package com.gourmet.recipes.repository;
+
+import com.gourmet.recipes.entity.Recipe;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class RecipeRepositoryImpl implements RecipeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Recipe> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Recipe> root = query.from(Recipe.class);
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Recipe> findLimited(Specification<Recipe> spec, Sort sort, int limit) {
+        return select(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Recipe> findPageContent(Specification<Recipe> spec, Pageable pageable) {
+        TypedQuery<Recipe> query = select(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public <T> Map<T, Long> countBy(Specification<Recipe> spec, String attribute, Class<T> type) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Recipe> root = query.from(Recipe.class);
+        Path<T> value = root.get(attribute);
+        query.multiselect(value, builder.count(root))
+                .where(matching(spec, root, query, builder))
+                .groupBy(value);
+
+        Map<T, Long> counts = new HashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, type), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> countTopIngredients(Specification<Recipe> spec, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Recipe> root = query.from(Recipe.class);
+        // Stored normalized, so names differing only in case or padding are one group
+        Expression<String> name = root.join("ingredients").get("name");
+        Expression<Long> count = builder.count(root);
+        query.multiselect(name, count)
+                .where(matching(spec, root, query, builder))
+                .groupBy(name)
+                .orderBy(builder.desc(count), builder.asc(name));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            counts.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    // Applies the spec in an id subquery, so its joins cannot multiply the grouped rows
+    private static Predicate matching(Specification<Recipe> spec, Root<Recipe> root, CriteriaQuery<?> query,
+                                      CriteriaBuilder builder) {
+        Subquery<Long> ids = query.subquery(Long.class);
+        Root<Recipe> recipe = ids.from(Recipe.class);
+        Predicate predicate = spec.toPredicate(recipe, query, builder);
+        ids.select(recipe.get("id"));
+        if (predicate != null) {
+            ids.where(predicate);
+        }
+        return root.get("id").in(ids);
+    }
+
+    private TypedQuery<Recipe> select(Specification<Recipe> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Recipe> query = builder.createQuery(Recipe.class);
+        Root<Recipe> root = query.from(Recipe.class);
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query);
+    }
+}
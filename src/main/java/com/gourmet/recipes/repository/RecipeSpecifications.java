@@ -3,10 +3,19 @@ package com.gourmet.recipes.repository;
 
 import com.gourmet.recipes.entity.Ingredient;
 import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.search.IngredientIndex;
+import com.gourmet.recipes.search.KeysetCursor;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
+import java.util.Collection;
 import java.util.List;
 
 public class RecipeSpecifications {
@@ -14,7 +23,7 @@ public class RecipeSpecifications {
     public static Specification<Recipe> hasName(String name) {
         return (root, query, builder) ->
                 name == null ? null :
-                        builder.like(builder.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+                        builder.like(builder.lower(root.get("name")), containsPattern(name));
     }
 
     public static Specification<Recipe> isVegetarian(Boolean vegetarian) {
@@ -37,18 +46,39 @@ public class RecipeSpecifications {
             // Correct join with entity types
             Join<Recipe, Ingredient> ingredientJoin = root.join("ingredients");
 
-            return ingredientJoin.get("name").in(ingredients);
+            return ingredientJoin.get("name").in(normalize(ingredients));
+        };
+    }
+
+    public static Specification<Recipe> hasAllIngredients(List<String> ingredients) {
+        return (root, query, builder) -> {
+            if (ingredients == null || ingredients.isEmpty()) return null;
+
+            // One EXISTS per ingredient; no join on the outer query, so no distinct needed
+            Predicate[] predicates = normalize(ingredients).stream()
+                    .map(name -> builder.exists(recipesWithIngredients(root, query, builder, List.of(name))))
+                    .toArray(Predicate[]::new);
+            return builder.and(predicates);
         };
     }
 
     public static Specification<Recipe> excludesIngredients(List<String> ingredients) {
         return (root, query, builder) -> {
             if (ingredients == null || ingredients.isEmpty()) return null;
-            Join<Recipe, Ingredient> join = root.join("ingredients");
-            return builder.not(join.get("name").in(ingredients));
+            // NOT EXISTS drops the whole recipe, not just the matching join rows
+            return builder.not(builder.exists(recipesWithIngredients(root, query, builder, ingredients)));
         };
     }
 
+    public static Specification<Recipe> idIn(Collection<Long> ids) {
+        return (root, query, builder) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Recipe> idNotIn(Collection<Long> ids) {
+        return (root, query, builder) ->
+                ids.isEmpty() ? null : builder.not(root.get("id").in(ids));
+    }
+
     public static Specification<Recipe> isPublic() {
         return (root, query, builder) ->
                 builder.isTrue(root.get("isPublic"));
@@ -62,7 +92,54 @@ public class RecipeSpecifications {
     public static Specification<Recipe> instructionsContains(String text) {
         return (root, query, builder) ->
                 text == null ? null :
-                        builder.like(builder.lower(root.get("instructions")), "%" + text.toLowerCase() + "%");
+                        builder.like(builder.lower(root.get("instructions")), containsPattern(text));
     }
-}
 
+    // LIKE pattern of the name and text filters, matched against the lower-cased column
+    public static String containsPattern(String value) {
+        return value == null ? null : "%" + value.toLowerCase() + "%";
+    }
+
+    // Rows strictly after the cursor position in its (sort key, id) order
+    public static Specification<Recipe> after(KeysetCursor cursor) {
+        return (root, query, builder) -> {
+            Path<Long> id = root.get("id");
+            boolean ascending = cursor.direction().isAscending();
+            Predicate idAfter = ascending
+                    ? builder.greaterThan(id, cursor.lastId())
+                    : builder.lessThan(id, cursor.lastId());
+            if (cursor.sortKey() == KeysetCursor.SortKey.ID) return idAfter;
+            return keyAfter(builder, root.get(cursor.sortKey().property), cursor.lastValue(), ascending, idAfter);
+        };
+    }
+
+    // Nulls sort lowest: before every value ascending, after every value descending
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keyAfter(CriteriaBuilder builder, Path path, Comparable value,
+                                      boolean ascending, Predicate idAfter) {
+        if (value == null) {
+            Predicate tie = builder.and(builder.isNull(path), idAfter);
+            return ascending ? builder.or(builder.isNotNull(path), tie) : tie;
+        }
+        Predicate tie = builder.and(builder.equal(path, value), idAfter);
+        return ascending
+                ? builder.or(builder.greaterThan(path, value), tie)
+                : builder.or(builder.lessThan(path, value), tie, builder.isNull(path));
+    }
+
+    private static Subquery<Long> recipesWithIngredients(Root<Recipe> root, CriteriaQuery<?> query,
+                                                         CriteriaBuilder builder, List<String> ingredients) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<Recipe> inner = subquery.from(Recipe.class);
+        Join<Recipe, Ingredient> join = inner.join("ingredients");
+        return subquery.select(inner.get("id"))
+                .where(builder.equal(inner.get("id"), root.get("id")),
+                        join.get("name").in(normalize(ingredients)));
+    }
+
+    // Names are stored normalized (IngredientResolver), so the bare, indexed column is
+    // compared with normalized values, as the ingredient index compares them
+    private static List<String> normalize(List<String> names) {
+        return names.stream().map(IngredientIndex::normalize).distinct().toList();
+    }
+}
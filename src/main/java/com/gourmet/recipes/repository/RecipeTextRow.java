@@ -0,0 +1,13 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * Searchable text columns of a recipe, used to rebuild the full-text index.
+ */
+public interface RecipeTextRow {
+
+    Long getId();
+
+    String getName();
+
+    String getInstructions();
+}
@@ -0,0 +1,7 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * Version of a recipe with just enough to check who may see it.
+ */
+public record RecipeVersion(long version, boolean isPublic, String owner) {
+}
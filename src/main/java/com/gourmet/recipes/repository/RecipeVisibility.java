@@ -0,0 +1,7 @@
+package com.gourmet.recipes.repository;
+
+/**
+ * Who may see a recipe: everyone when public, otherwise only its owner (and admins).
+ */
+public record RecipeVisibility(Long id, boolean isPublic, String owner) {
+}
@@ -2,9 +2,12 @@ package com.gourmet.recipes.repository;
 
 
 import com.gourmet.recipes.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Roles are EAGER; join them here instead of a second select per lookup
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
 }
@@ -0,0 +1,41 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.event.RecipeVisibilityChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped after every committed recipe write. Values derived from the
+ * catalog can be tagged with it to tell whether they may be stale.
+ * <p>
+ * Starts from the boot time rather than zero: versions end up in client-held
+ * ETags and must not repeat after a restart.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisibilityChanged(RecipeVisibilityChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,16 @@
+package com.gourmet.recipes.search;
+
+/**
+ * How a paged search computes its total.
+ * <p>
+ * In every mode no count runs when the page itself reveals the total (first page
+ * not full, or the last page).
+ */
+public enum CountMode {
+    /** Count query on every page. */
+    EXACT,
+    /** Exact count, reused until the catalog changes. */
+    CACHED,
+    /** Last known count for the same filters, even if the catalog changed since; counted once otherwise. */
+    ESTIMATED
+}
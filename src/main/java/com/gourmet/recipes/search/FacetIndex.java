@@ -0,0 +1,215 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.dto.SearchFacets;
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.repository.RecipeFacetRow;
+import com.gourmet.recipes.repository.RecipeRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The vegetarian flag and servings of every recipe as bitmaps (one per value), so
+ * search facets are counted by intersecting them with the result set instead of
+ * grouping in SQL. Maintained like {@link IngredientIndex}.
+ */
+@Component
+public class FacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetIndex.class);
+
+    // Upper bound and label of each servings bucket; the last one is open-ended
+    private static final int[] SERVINGS_BOUNDS = {2, 4, 6, 8, Integer.MAX_VALUE};
+    private static final String[] SERVINGS_LABELS = {"1-2", "3-4", "5-6", "7-8", "9+"};
+
+    private final RecipeRepository recipeRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private RoaringBitmap allRecipes = new RoaringBitmap();
+    private RoaringBitmap vegetarianRecipes = new RoaringBitmap();
+    private TreeMap<Integer, RoaringBitmap> byServings = new TreeMap<>();
+    private volatile boolean ready;
+
+    public FacetIndex(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== Maintenance =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            allRecipes = new RoaringBitmap();
+            vegetarianRecipes = new RoaringBitmap();
+            byServings = new TreeMap<>();
+            for (RecipeFacetRow row : recipeRepository.findAllFacetRows()) {
+                link(Math.toIntExact(row.id()), row.vegetarian(), row.servings());
+            }
+            allRecipes.runOptimize();
+            vegetarianRecipes.runOptimize();
+            ready = true;
+            logger.info("Facet index rebuilt: {} recipes, {} servings values",
+                    allRecipes.getCardinality(), byServings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        index(event.recipeId(), event.vegetarian(), event.servings());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        remove(event.recipeId());
+    }
+
+    public void index(Long recipeId, boolean vegetarian, int servings) {
+        int id = Math.toIntExact(recipeId);
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            link(id, vegetarian, servings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            unlink(Math.toIntExact(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Queries =====
+
+    /**
+     * Recipes with the given flag and servings, either of which may be null for any,
+     * as a fresh bitmap.
+     */
+    public RoaringBitmap matching(Boolean vegetarian, Integer servings) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = servings == null
+                    ? allRecipes.clone()
+                    : byServings.getOrDefault(servings, new RoaringBitmap()).clone();
+            if (vegetarian != null) {
+                if (vegetarian) {
+                    result.and(vegetarianRecipes);
+                } else {
+                    result.andNot(vegetarianRecipes);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recipes in {@code within} per vegetarian flag
+    public Map<Boolean, Long> countVegetarian(RoaringBitmap within) {
+        lock.readLock().lock();
+        try {
+            long vegetarian = RoaringBitmap.andCardinality(vegetarianRecipes, within);
+            return Map.of(true, vegetarian, false, within.getLongCardinality() - vegetarian);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recipes in {@code within} per servings value, zero counts left out
+    public Map<Integer, Long> countServings(RoaringBitmap within) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, Long> counts = new HashMap<>();
+            byServings.forEach((servings, recipes) -> {
+                long count = RoaringBitmap.andCardinality(recipes, within);
+                if (count > 0) {
+                    counts.put(servings, count);
+                }
+            });
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Facet values =====
+
+    public static List<SearchFacets.Count> vegetarianFacet(Map<Boolean, Long> counts) {
+        return List.of(
+                new SearchFacets.Count("true", counts.getOrDefault(true, 0L)),
+                new SearchFacets.Count("false", counts.getOrDefault(false, 0L)));
+    }
+
+    // Folds counts per servings value into the fixed buckets
+    public static List<SearchFacets.Count> servingsFacet(Map<Integer, Long> counts) {
+        long[] buckets = new long[SERVINGS_BOUNDS.length];
+        counts.forEach((servings, count) -> buckets[bucket(servings)] += count);
+        List<SearchFacets.Count> facet = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            facet.add(new SearchFacets.Count(SERVINGS_LABELS[i], buckets[i]));
+        }
+        return facet;
+    }
+
+    public static List<SearchFacets.Count> ingredientFacet(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new SearchFacets.Count(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // ===== Helpers =====
+
+    private static int bucket(int servings) {
+        int i = 0;
+        while (servings > SERVINGS_BOUNDS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private void link(int recipeId, boolean vegetarian, int servings) {
+        allRecipes.add(recipeId);
+        if (vegetarian) {
+            vegetarianRecipes.add(recipeId);
+        }
+        byServings.computeIfAbsent(servings, k -> new RoaringBitmap()).add(recipeId);
+    }
+
+    private void unlink(int recipeId) {
+        if (!allRecipes.checkedRemove(recipeId)) return;
+        vegetarianRecipes.remove(recipeId);
+        // Few distinct servings values, so scanning them beats tracking each recipe's
+        Iterator<RoaringBitmap> values = byServings.values().iterator();
+        while (values.hasNext()) {
+            RoaringBitmap recipes = values.next();
+            if (recipes.checkedRemove(recipeId) && recipes.isEmpty()) {
+                values.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.repository.RecipeRepository;
+import com.gourmet.recipes.repository.RecipeTextRow;
+import org.slf4j.Logger;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text index over recipe names and instructions with BM25 ranking.
+ * <p>
+ * Each field is scored with BM25 against its own average length and the field
+ * scores are summed, with matches in the name weighted higher than in the
+ * instructions. Maintained like {@link IngredientIndex}: rebuilt at startup and
+ * updated incrementally from recipe events after commit.
+ */
+@Component
+public class FullTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextIndex.class);
+
+    private static final int NAME = 0;
+    private static final int INSTRUCTIONS = 1;
+    private static final double[] FIELD_WEIGHTS = {2.0, 1.0};
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** Per-document statistics; term frequencies live in the postings. */
+    private record Document(int[] lengths, Set<String> terms) {}
+
+    public record Hit(Long recipeId, double score) {}
+
+    /** The best {@code hits}, best first, out of {@code total} matching recipes. */
+    public record Ranking(List<Hit> hits, int total) {}
+
+    private final RecipeRepository recipeRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> recipe id -> term frequency per field
+    private Map<String, Map<Integer, int[]>> postings = new HashMap<>();
+    private Map<Integer, Document> documents = new HashMap<>();
+    private final long[] totalLengths = new long[2];
+    private volatile boolean ready;
+
+    public FullTextIndex(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== Maintenance =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            documents = new HashMap<>();
+            totalLengths[NAME] = 0;
+            totalLengths[INSTRUCTIONS] = 0;
+            for (RecipeTextRow row : recipeRepository.findAllTextRows()) {
+                add(Math.toIntExact(row.getId()), row.getName(), row.getInstructions());
+            }
+            ready = true;
+            logger.info("Full-text index rebuilt: {} terms, {} recipes", postings.size(), documents.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        index(event.recipeId(), event.name(), event.instructions());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        remove(event.recipeId());
+    }
+
+    public void index(Long recipeId, String name, String instructions) {
+        int id = Math.toIntExact(recipeId);
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            add(id, name, instructions);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            unlink(Math.toIntExact(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Queries =====
+
+    /** Every recipe matching any query term, best first. */
+    public List<Hit> search(String query) {
+        return search(query, null, Integer.MAX_VALUE).hits();
+    }
+
+    /**
+     * Ranks the recipes matching any query term among {@code candidates} (all recipes
+     * if null), so filters answered by the other indexes apply before the cut to the
+     * best {@code limit}. The total counts every matching candidate.
+     */
+    public Ranking search(String query, RoaringBitmap candidates, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        if (terms.isEmpty()) return new Ranking(List.of(), 0);
+
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) return new Ranking(List.of(), 0);
+            double[] avgLengths = {
+                    Math.max(1.0, (double) totalLengths[NAME] / docCount),
+                    Math.max(1.0, (double) totalLengths[INSTRUCTIONS] / docCount)
+            };
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Integer, int[]> posting = postings.get(term);
+                if (posting == null) continue;
+                // Statistics over the whole collection, so filtering does not change the scores
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Integer, int[]> entry : posting.entrySet()) {
+                    if (candidates != null && !candidates.contains(entry.getKey())) continue;
+                    int[] lengths = documents.get(entry.getKey()).lengths();
+                    double score = 0;
+                    for (int field = NAME; field <= INSTRUCTIONS; field++) {
+                        int tf = entry.getValue()[field];
+                        if (tf == 0) continue;
+                        double norm = K1 * (1 - B + B * lengths[field] / avgLengths[field]);
+                        score += FIELD_WEIGHTS[field] * idf * tf * (K1 + 1) / (tf + norm);
+                    }
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+            return new Ranking(topHits(scores, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every recipe matching any query term, unranked
+    public RoaringBitmap matching(String query) {
+        RoaringBitmap matches = new RoaringBitmap();
+        lock.readLock().lock();
+        try {
+            for (String term : new LinkedHashSet<>(TextAnalyzer.analyze(query))) {
+                Map<Integer, int[]> posting = postings.get(term);
+                if (posting != null) {
+                    posting.keySet().forEach(matches::add);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    // ===== Helpers =====
+
+    private static List<Hit> topHits(Map<Integer, Double> scores, int limit) {
+        Comparator<Map.Entry<Integer, Double>> byScore = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(byScore);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<Integer, Double> entry = heap.poll();
+            hits.add(new Hit(entry.getKey().longValue(), entry.getValue()));
+        }
+        // heap drains lowest first
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private void add(int id, String name, String instructions) {
+        List<String> nameTerms = TextAnalyzer.analyze(name);
+        List<String> instructionTerms = TextAnalyzer.analyze(instructions);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : nameTerms) {
+            postings.computeIfAbsent(term, k -> new HashMap<>()).computeIfAbsent(id, k -> new int[2])[NAME]++;
+            terms.add(term);
+        }
+        for (String term : instructionTerms) {
+            postings.computeIfAbsent(term, k -> new HashMap<>()).computeIfAbsent(id, k -> new int[2])[INSTRUCTIONS]++;
+            terms.add(term);
+        }
+        documents.put(id, new Document(new int[]{nameTerms.size(), instructionTerms.size()}, terms));
+        totalLengths[NAME] += nameTerms.size();
+        totalLengths[INSTRUCTIONS] += instructionTerms.size();
+    }
+
+    private void unlink(int id) {
+        Document previous = documents.remove(id);
+        if (previous == null) return;
+        for (String term : previous.terms()) {
+            Map<Integer, int[]> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLengths[NAME] -= previous.lengths()[NAME];
+        totalLengths[INSTRUCTIONS] -= previous.lengths()[INSTRUCTIONS];
+    }
+}
@@ -0,0 +1,281 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.repository.PantryScore;
+import com.gourmet.recipes.repository.RecipeIngredientPair;
+import com.gourmet.recipes.repository.RecipeRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index of ingredient name -> recipe ids, held as compressed bitmaps, plus
+ * the forward direction recipe id -> ingredient ordinals for pantry matching.
+ * <p>
+ * Rebuilt from the database once the application is ready and kept current from
+ * {@link RecipeSavedEvent}/{@link RecipeDeletedEvent} after each commit. Until the
+ * first rebuild completes {@link #isReady()} is false and callers must fall back to SQL.
+ * Recipe ids are stored as 32-bit values.
+ */
+@Component
+public class IngredientIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientIndex.class);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    // Best first; coverages compared by cross-multiplication to stay exact
+    private static final Comparator<PantryScore> PANTRY_ORDER = ((Comparator<PantryScore>) (a, b) ->
+            Long.compare(b.matched() * a.total(), a.matched() * b.total()))
+            .thenComparing(PantryScore::matched, Comparator.reverseOrder())
+            .thenComparing(PantryScore::recipeId);
+
+    private final RecipeRepository recipeRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, RoaringBitmap> postings = new HashMap<>();
+    // Ingredients are numbered on first sight; ordinals are never reused
+    private Map<String, Integer> ordinals = new HashMap<>();
+    private List<String> names = new ArrayList<>();
+    private Map<Integer, RoaringBitmap> recipeIngredients = new HashMap<>();
+    private volatile boolean ready;
+
+    public IngredientIndex(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== Maintenance =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Holding the write lock while reading makes concurrent commits queue up and
+        // re-apply afterwards, so nothing committed during the rebuild is lost.
+        lock.writeLock().lock();
+        try {
+            List<RecipeIngredientPair> pairs = recipeRepository.findAllRecipeIngredientPairs();
+            postings = new HashMap<>();
+            ordinals = new HashMap<>();
+            names = new ArrayList<>();
+            recipeIngredients = new HashMap<>();
+            for (RecipeIngredientPair pair : pairs) {
+                int recipeId = Math.toIntExact(pair.getRecipeId());
+                String name = normalize(pair.getIngredientName());
+                postings.computeIfAbsent(name, k -> new RoaringBitmap()).add(recipeId);
+                recipeIngredients.computeIfAbsent(recipeId, k -> new RoaringBitmap()).add(ordinal(name));
+            }
+            postings.values().forEach(RoaringBitmap::runOptimize);
+            ready = true;
+            logger.info("Ingredient index rebuilt: {} ingredients, {} recipes",
+                    postings.size(), recipeIngredients.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        index(event.recipeId(), event.ingredients());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        remove(event.recipeId());
+    }
+
+    public void index(Long recipeId, Collection<String> ingredients) {
+        int id = Math.toIntExact(recipeId);
+        Set<String> recipeNames = new HashSet<>();
+        ingredients.forEach(name -> recipeNames.add(normalize(name)));
+
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            RoaringBitmap recipeOrdinals = new RoaringBitmap();
+            for (String name : recipeNames) {
+                postings.computeIfAbsent(name, k -> new RoaringBitmap()).add(id);
+                recipeOrdinals.add(ordinal(name));
+            }
+            recipeIngredients.put(id, recipeOrdinals);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            unlink(Math.toIntExact(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Queries =====
+
+    /**
+     * Recipes containing the ingredients according to {@code match}.
+     * Always returns a fresh bitmap the caller may modify.
+     */
+    public RoaringBitmap match(Collection<String> ingredients, IngredientMatch match) {
+        return match == IngredientMatch.ALL ? matchAll(ingredients) : matchAny(ingredients);
+    }
+
+    public RoaringBitmap matchAny(Collection<String> ingredients) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = new RoaringBitmap();
+            for (String name : ingredients) {
+                RoaringBitmap posting = postings.get(normalize(name));
+                if (posting != null) {
+                    result.or(posting);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RoaringBitmap matchAll(Collection<String> ingredients) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (String name : ingredients) {
+                RoaringBitmap posting = postings.get(normalize(name));
+                if (posting == null) {
+                    return new RoaringBitmap();
+                }
+                result = result == null ? posting.clone() : RoaringBitmap.and(result, posting);
+            }
+            return result == null ? new RoaringBitmap() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} recipes that share the most with the pantry relative to their
+     * size, best first: candidates come from the postings of the pantry ingredients,
+     * each is scored by intersecting its ingredient bitmap with the pantry's, and a
+     * bounded heap keeps the top entries. Ties go to more matched ingredients, then
+     * the lower id. {@code allowed} restricts the candidates; null allows all.
+     */
+    public List<PantryScore> matchPantry(Collection<String> pantry, RoaringBitmap allowed, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap pantryOrdinals = new RoaringBitmap();
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (String name : pantry) {
+                String key = normalize(name);
+                Integer ordinal = ordinals.get(key);
+                if (ordinal != null) {
+                    pantryOrdinals.add(ordinal.intValue());
+                    candidates.or(postings.getOrDefault(key, EMPTY));
+                }
+            }
+            if (allowed != null) {
+                candidates.and(allowed);
+            }
+
+            // Min-heap on score, so the weakest of the current top entries is evicted first
+            PriorityQueue<PantryScore> top = new PriorityQueue<>(limit + 1, PANTRY_ORDER.reversed());
+            candidates.forEach((int recipeId) -> {
+                RoaringBitmap ingredients = recipeIngredients.get(recipeId);
+                PantryScore score = new PantryScore((long) recipeId,
+                        RoaringBitmap.andCardinality(ingredients, pantryOrdinals), ingredients.getCardinality());
+                top.offer(score);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+
+            List<PantryScore> ranked = new ArrayList<>(top);
+            ranked.sort(PANTRY_ORDER);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} ingredients occurring in most of the {@code within} recipes,
+     * most frequent first (ties by name), with their counts.
+     */
+    public Map<String, Long> topIngredients(RoaringBitmap within, int limit) {
+        Comparator<Map.Entry<String, Long>> order = Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        lock.readLock().lock();
+        try {
+            // Min-heap, as in matchPantry
+            PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(limit + 1, order.reversed());
+            postings.forEach((name, posting) -> {
+                long count = RoaringBitmap.andCardinality(posting, within);
+                if (count > 0) {
+                    top.offer(Map.entry(name, count));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            });
+
+            List<Map.Entry<String, Long>> ranked = new ArrayList<>(top);
+            ranked.sort(order);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            ranked.forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Helpers =====
+
+    private int ordinal(String name) {
+        return ordinals.computeIfAbsent(name, k -> {
+            names.add(k);
+            return names.size() - 1;
+        });
+    }
+
+    private void unlink(int recipeId) {
+        RoaringBitmap previous = recipeIngredients.remove(recipeId);
+        if (previous == null) return;
+        for (int ordinal : previous) {
+            String name = names.get(ordinal);
+            RoaringBitmap posting = postings.get(name);
+            if (posting != null) {
+                posting.remove(recipeId);
+                if (posting.isEmpty()) {
+                    postings.remove(name);
+                }
+            }
+        }
+    }
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
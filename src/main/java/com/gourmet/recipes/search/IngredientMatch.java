@@ -0,0 +1,11 @@
+package com.gourmet.recipes.search;
+
+/**
+ * How the requested ingredients are combined when filtering recipes.
+ */
+public enum IngredientMatch {
+    /** Recipe contains at least one of the ingredients. */
+    ANY,
+    /** Recipe contains every one of the ingredients. */
+    ALL
+}
@@ -0,0 +1,86 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.exception.InvalidInputException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a keyset-paginated search: the sort key and direction plus the
+ * (sort value, id) of the last row returned. Serialized as an opaque URL-safe token.
+ * <p>
+ * The sort value may be null (recipes imported without a creation time); nulls
+ * sort lowest, as in MySQL and H2, so first when ascending and last when descending.
+ */
+public record KeysetCursor(SortKey sortKey, Sort.Direction direction, Comparable<?> lastValue, Long lastId) {
+
+    private static final String VERSION = "v1";
+
+    /** Sort orders keyset pagination supports; ties are always broken by id. */
+    public enum SortKey {
+        ID("id"),
+        NAME("name"),
+        CREATED_AT("createdAt");
+
+        public final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+    }
+
+    public KeysetCursor {
+        Objects.requireNonNull(sortKey, "sortKey");
+        Objects.requireNonNull(direction, "direction");
+        Objects.requireNonNull(lastId, "lastId");
+    }
+
+    public static KeysetCursor after(SortKey sortKey, Sort.Direction direction, Recipe last) {
+        Comparable<?> value = switch (sortKey) {
+            case ID -> last.getId();
+            case NAME -> last.getName();
+            case CREATED_AT -> last.getCreatedAt();
+        };
+        return new KeysetCursor(sortKey, direction, value, last.getId());
+    }
+
+    public static Sort sort(SortKey sortKey, Sort.Direction direction) {
+        return sortKey == SortKey.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortKey.property).and(Sort.by(direction, "id"));
+    }
+
+    public String encode() {
+        // value goes last so it may contain the separator; a null value leaves it out entirely
+        String raw = String.join(":", VERSION, sortKey.name(), direction.name(), lastId.toString());
+        if (lastValue != null) {
+            raw += ":" + lastValue;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 5);
+            if (parts.length < 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unknown cursor format");
+            }
+            SortKey sortKey = SortKey.valueOf(parts[1]);
+            Long lastId = Long.valueOf(parts[3]);
+            String text = parts.length == 5 ? parts[4] : null;
+            Comparable<?> value = switch (sortKey) {
+                case ID -> lastId;
+                case NAME -> text;
+                case CREATED_AT -> text == null ? null : LocalDateTime.parse(text);
+            };
+            return new KeysetCursor(sortKey, Sort.Direction.valueOf(parts[2]), value, lastId);
+        } catch (RuntimeException e) {
+            throw new InvalidInputException("Invalid cursor: " + token);
+        }
+    }
+}
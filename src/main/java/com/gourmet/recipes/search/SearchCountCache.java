@@ -0,0 +1,81 @@
+package com.gourmet.recipes.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.repository.RecipeSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Search totals keyed by the normalized filter set and the viewer's visibility,
+ * each tagged with the {@link CatalogVersion} it was counted at.
+ */
+@Component
+public class SearchCountCache {
+
+    /**
+     * Normalized filters plus visibility. Name and text are the LIKE patterns the
+     * query binds, so two keys are equal only if their counts are; ingredient lists
+     * are folded like the ingredient index does and sorted; admins share one key.
+     */
+    public record Key(String name, Boolean vegetarian, Integer servings, List<String> ingredients,
+                      IngredientMatch ingredientMatch, List<String> excludedIngredients, String text,
+                      String viewer) {
+
+        public static Key of(RecipeSearchCriteria criteria, String username, boolean isAdmin) {
+            return new Key(RecipeSpecifications.containsPattern(criteria.getName()),
+                    criteria.getVegetarian(),
+                    criteria.getServings(),
+                    normalize(criteria.getIngredients()),
+                    criteria.getIngredientMatch(),
+                    normalize(criteria.getExcludedIngredients()),
+                    RecipeSpecifications.containsPattern(criteria.getText()),
+                    isAdmin ? null : username);
+        }
+
+        private static List<String> normalize(List<String> names) {
+            if (names == null) return List.of();
+            return names.stream()
+                    .map(IngredientIndex::normalize)
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private record Entry(long total, long version) {}
+
+    private final Cache<Key, Entry> cache;
+    private final CatalogVersion catalogVersion;
+
+    public SearchCountCache(CatalogVersion catalogVersion,
+                            @Value("${recipes.search.count-cache.ttl:10m}") Duration ttl,
+                            @Value("${recipes.search.count-cache.max-size:10000}") long maxSize) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * The cached total for {@code key}, or the result of {@code counter}, which is then cached.
+     * A total counted before the latest catalog write is only reused when {@code allowStale}.
+     */
+    public long get(Key key, boolean allowStale, LongSupplier counter) {
+        // Read before counting: a write racing with the count leaves the entry already stale
+        long version = catalogVersion.current();
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && (allowStale || entry.version() == version)) {
+            return entry.total();
+        }
+        long total = counter.getAsLong();
+        cache.put(key, new Entry(total, version));
+        return total;
+    }
+}
@@ -0,0 +1,72 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.config.StatementCounter;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Latency and SQL statement count of searches, tagged by which filters were used
+ * (not their values), so expensive filter combinations stand out.
+ */
+@Component
+public class SearchMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+
+    public SearchMetrics(MeterRegistry meterRegistry, StatementCounter statementCounter) {
+        this.meterRegistry = meterRegistry;
+        this.statementCounter = statementCounter;
+    }
+
+    /**
+     * Runs {@code search} and records it under {@code mode} (e.g. "page" or "scroll").
+     */
+    public <T> T record(String mode, RecipeSearchCriteria criteria, Supplier<T> search) {
+        Tags tags = Tags.of(
+                "mode", mode,
+                "filters", filters(criteria),
+                "ranked", Boolean.toString(criteria.isRanked()),
+                "countMode", String.valueOf(criteria.getCountMode()));
+        long statementsBefore = statementCounter.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return search.get();
+        } finally {
+            sample.stop(Timer.builder("recipes.search")
+                    .description("Recipe search latency by filter combination")
+                    .tags(tags)
+                    .register(meterRegistry));
+            DistributionSummary.builder("recipes.search.statements")
+                    .description("SQL statements per search by filter combination")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(statementCounter.current() - statementsBefore);
+        }
+    }
+
+    // Bounded set of names, e.g. "ingredients+vegetarian"; "none" without filters
+    static String filters(RecipeSearchCriteria criteria) {
+        StringJoiner used = new StringJoiner("+");
+        if (hasText(criteria.getName())) used.add("name");
+        if (criteria.getVegetarian() != null) used.add("vegetarian");
+        if (criteria.getServings() != null) used.add("servings");
+        if (criteria.getIngredients() != null && !criteria.getIngredients().isEmpty()) {
+            used.add("ingredients" + (criteria.getIngredientMatch() == IngredientMatch.ALL ? "All" : "Any"));
+        }
+        if (criteria.getExcludedIngredients() != null && !criteria.getExcludedIngredients().isEmpty()) used.add("excluded");
+        if (hasText(criteria.getText())) used.add("text");
+        return used.length() == 0 ? "none" : used.toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,86 @@
+package com.gourmet.recipes.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns recipe text into index terms: lower-cases, splits on anything that is not
+ * a letter or digit, drops stop words and applies a light English stemmer.
+ * The same analysis runs for documents and queries, so both sides agree on terms.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "if", "in",
+            "into", "is", "it", "of", "on", "or", "so", "that", "the", "then", "to", "until",
+            "with", "your");
+
+    private TextAnalyzer() {}
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) return terms;
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean tokenChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Light suffix stripper for plurals and the common verb/adverb endings
+     * found in recipe text ("tomatoes", "boiling", "chopped", "finely").
+     */
+    static String stem(String token) {
+        String t = token;
+        if (t.length() <= 3) return t;
+
+        if (t.endsWith("ies") && t.length() > 4) {
+            t = t.substring(0, t.length() - 3) + "y";
+        } else if (t.endsWith("sses")) {
+            t = t.substring(0, t.length() - 2);
+        } else if (t.endsWith("oes") || t.endsWith("ches") || t.endsWith("shes") || t.endsWith("xes")) {
+            t = t.substring(0, t.length() - 2);
+        } else if (t.endsWith("s") && !t.endsWith("ss") && !t.endsWith("us") && !t.endsWith("is")) {
+            t = t.substring(0, t.length() - 1);
+        }
+
+        if (t.endsWith("ing") && hasVowel(t, t.length() - 3) && t.length() - 3 >= 3) {
+            t = undouble(t.substring(0, t.length() - 3));
+        } else if (t.endsWith("ed") && hasVowel(t, t.length() - 2) && t.length() - 2 >= 3) {
+            t = undouble(t.substring(0, t.length() - 2));
+        } else if (t.endsWith("ly") && t.length() - 2 >= 3) {
+            t = t.substring(0, t.length() - 2);
+        }
+        return t;
+    }
+
+    private static boolean hasVowel(String s, int end) {
+        for (int i = 0; i < end; i++) {
+            if ("aeiouy".indexOf(s.charAt(i)) >= 0) return true;
+        }
+        return false;
+    }
+
+    // "chopp" -> "chop", but keep "ll"/"ss"/"zz" ("grill", "press")
+    private static String undouble(String s) {
+        int n = s.length();
+        if (n >= 2 && s.charAt(n - 1) == s.charAt(n - 2) && "lsz".indexOf(s.charAt(n - 1)) < 0) {
+            return s.substring(0, n - 1);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,155 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.event.RecipeVisibilityChangedEvent;
+import com.gourmet.recipes.repository.RecipeRepository;
+import com.gourmet.recipes.repository.RecipeVisibility;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The public/owner visibility rule of searches as bitmaps: public recipes, and the
+ * recipes of each owner. Lets in-memory matching apply the rule without a query.
+ * Maintained like {@link IngredientIndex}.
+ */
+@Component
+public class VisibilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisibilityIndex.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private RoaringBitmap publicRecipes = new RoaringBitmap();
+    private Map<String, RoaringBitmap> ownedRecipes = new HashMap<>();
+    private Map<Integer, String> owners = new HashMap<>();
+    private volatile boolean ready;
+
+    public VisibilityIndex(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== Maintenance =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            publicRecipes = new RoaringBitmap();
+            ownedRecipes = new HashMap<>();
+            owners = new HashMap<>();
+            for (RecipeVisibility row : recipeRepository.findAllVisibility()) {
+                link(Math.toIntExact(row.id()), row.isPublic(), row.owner());
+            }
+            publicRecipes.runOptimize();
+            ready = true;
+            logger.info("Visibility index rebuilt: {} recipes, {} owners", owners.size(), ownedRecipes.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        index(event.recipeId(), event.isPublic(), event.owner());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        remove(event.recipeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisibilityChanged(RecipeVisibilityChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Long recipeId : event.recipeIds()) {
+                int id = Math.toIntExact(recipeId);
+                if (!owners.containsKey(id)) continue;
+                if (event.isPublic()) {
+                    publicRecipes.add(id);
+                } else {
+                    publicRecipes.remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Long recipeId, boolean isPublic, String owner) {
+        int id = Math.toIntExact(recipeId);
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            link(id, isPublic, owner);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            unlink(Math.toIntExact(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Queries =====
+
+    /**
+     * Recipes {@code username} may see, as a fresh bitmap; null for admins, who see all.
+     */
+    public RoaringBitmap visibleTo(String username, boolean isAdmin) {
+        if (isAdmin) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap owned = ownedRecipes.get(username);
+            return owned == null ? publicRecipes.clone() : RoaringBitmap.or(publicRecipes, owned);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Helpers =====
+
+    private void link(int recipeId, boolean isPublic, String owner) {
+        if (isPublic) {
+            publicRecipes.add(recipeId);
+        }
+        ownedRecipes.computeIfAbsent(owner, k -> new RoaringBitmap()).add(recipeId);
+        owners.put(recipeId, owner);
+    }
+
+    private void unlink(int recipeId) {
+        publicRecipes.remove(recipeId);
+        String owner = owners.remove(recipeId);
+        if (owner == null) return;
+        RoaringBitmap owned = ownedRecipes.get(owner);
+        if (owned != null) {
+            owned.remove(recipeId);
+            if (owned.isEmpty()) {
+                ownedRecipes.remove(owner);
+            }
+        }
+    }
+}
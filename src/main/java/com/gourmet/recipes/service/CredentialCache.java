@@ -0,0 +1,114 @@
+package com.gourmet.recipes.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gourmet.recipes.event.PasswordChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, TTL-evicting cache of recently verified Basic credentials.
+ * <p>
+ * Stores an HMAC of the username/password pair under a per-process random key,
+ * never the password itself, together with the authenticated UserDetails. A hit
+ * lets a request skip both the user query and the BCrypt check. Entries are
+ * invalidated once a password change commits; a login verified against the old
+ * password before then is not stored (see {@link #epoch(String)}).
+ */
+@Component
+public class CredentialCache {
+
+    private static final String HMAC = "HmacSHA256";
+
+    // Invalidation epochs, striped by username; a login only stores if its stripe's epoch is unchanged
+    private static final int STRIPES = 256;
+
+    private record Entry(byte[] digest, UserDetails user) {}
+
+    private final Cache<String, Entry> cache;
+    private final SecretKeySpec key;
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    public CredentialCache(@Value("${recipes.auth.credential-cache.ttl:5m}") Duration ttl,
+                           @Value("${recipes.auth.credential-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+    }
+
+    /**
+     * The cached user when {@code password} matches what was verified for {@code username}.
+     */
+    public Optional<UserDetails> lookup(String username, String password) {
+        Entry entry = cache.getIfPresent(username);
+        if (entry == null || !MessageDigest.isEqual(entry.digest(), digest(username, password))) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.user());
+    }
+
+    /**
+     * The invalidation epoch for {@code username}, to be taken before the password is
+     * verified and passed to {@link #store}.
+     */
+    public long epoch(String username) {
+        return epochs.get(stripe(username));
+    }
+
+    /**
+     * Caches a verified login, unless the user was invalidated since {@code epoch}
+     * was taken: the password then may have been checked against a replaced hash.
+     */
+    public void store(String username, String password, UserDetails user, long epoch) {
+        Entry entry = new Entry(digest(username, password), user);
+        int stripe = stripe(username);
+        // Checked under the key's lock, which invalidate() also takes to bump the epoch
+        cache.asMap().compute(username, (key, current) -> epochs.get(stripe) == epoch ? entry : current);
+    }
+
+    public void invalidate(String username) {
+        cache.asMap().compute(username, (key, current) -> {
+            epochs.incrementAndGet(stripe(key));
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPasswordChanged(PasswordChangedEvent event) {
+        invalidate(event.username());
+    }
+
+    // ===== Helpers =====
+
+    private static int stripe(String username) {
+        return username.hashCode() & (STRIPES - 1);
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
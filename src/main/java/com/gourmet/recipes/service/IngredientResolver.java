@@ -0,0 +1,187 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.entity.Ingredient;
+import com.gourmet.recipes.repository.IngredientEntry;
+import com.gourmet.recipes.repository.IngredientRepository;
+import com.gourmet.recipes.search.IngredientIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns ingredient names into Ingredient entities in a fixed number of round trips.
+ * <p>
+ * Names are stored normalized ({@link IngredientIndex#normalize}), so every lookup is
+ * an exact match on the indexed name column. Known names are served from an in-memory
+ * name -> id dictionary (warmed at startup) as entity references, unknown names are
+ * looked up with one {@code IN} query, and the rest are inserted with
+ * {@code INSERT IGNORE} in the caller's transaction. When the insert reports every row
+ * written, the generated ids are used as they are; otherwise another transaction
+ * inserted some of the names first, and the batch is read back to pick up their ids.
+ * Ids only reach the shared dictionary once their transaction has committed.
+ * Ingredients are never deleted, so dictionary entries do not go stale.
+ */
+@Service
+public class IngredientResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientResolver.class);
+    // Rows per INSERT statement, well below the bind parameter limit
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final IngredientRepository ingredientRepository;
+    private final Map<String, Long> dictionary = new ConcurrentHashMap<>();
+    // Transaction resource key for names resolved but not committed yet
+    private final Object uncommittedKey = new Object();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IngredientResolver(IngredientRepository ingredientRepository) {
+        this.ingredientRepository = ingredientRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (IngredientEntry entry : ingredientRepository.findAllEntries()) {
+            dictionary.put(IngredientIndex.normalize(entry.getName()), entry.getId());
+        }
+        logger.info("Ingredient dictionary warmed with {} entries", dictionary.size());
+    }
+
+    /**
+     * Resolves the names to ingredients attached to the current persistence context,
+     * creating the ones that do not exist yet. Names differing only in case or
+     * surrounding whitespace resolve to the same ingredient.
+     */
+    public Set<Ingredient> resolve(Collection<String> names) {
+        Set<String> pending = new LinkedHashSet<>();
+        for (String name : names) {
+            pending.add(IngredientIndex.normalize(name));
+        }
+
+        // References are hashed (and so initialized) only once all are created, letting
+        // Hibernate initialize them together in one batch-fetch query
+        List<Ingredient> resolved = new ArrayList<>();
+        Map<String, Long> uncommitted = uncommitted();
+        pending.removeIf(name -> {
+            Long id = dictionary.get(name);
+            if (id == null) id = uncommitted.get(name);
+            if (id == null) return false;
+            resolved.add(entityManager.getReference(Ingredient.class, id));
+            return true;
+        });
+        if (pending.isEmpty()) return new HashSet<>(resolved);
+
+        for (Ingredient ingredient : ingredientRepository.findByNameIn(pending)) {
+            uncommitted.put(ingredient.getName(), ingredient.getId());
+            pending.remove(ingredient.getName());
+            resolved.add(ingredient);
+        }
+        if (pending.isEmpty()) return new HashSet<>(resolved);
+
+        // Sorted, so concurrent inserts of overlapping names take their key locks in the same order
+        List<String> missing = pending.stream().sorted().toList();
+        for (int from = 0; from < missing.size(); from += INSERT_BATCH_SIZE) {
+            List<String> batch = missing.subList(from, Math.min(from + INSERT_BATCH_SIZE, missing.size()));
+            Map<String, Long> inserted = insertIgnoringDuplicates(batch);
+            if (inserted != null) {
+                uncommitted.putAll(inserted);
+                inserted.values().forEach(id -> resolved.add(entityManager.getReference(Ingredient.class, id)));
+                continue;
+            }
+            // Some rows were skipped, so some generated ids were never stored; read the batch back
+            Set<String> unresolved = new HashSet<>(batch);
+            for (Ingredient ingredient : ingredientRepository.findByNameIn(batch)) {
+                uncommitted.put(ingredient.getName(), ingredient.getId());
+                unresolved.remove(ingredient.getName());
+                resolved.add(ingredient);
+            }
+            if (!unresolved.isEmpty()) {
+                throw new IllegalStateException("Ingredients missing after insert: " + unresolved);
+            }
+        }
+        return new HashSet<>(resolved);
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * Inserts the names with freshly generated ids in one statement. Returns name -> id
+     * if every row was written, or null if any was skipped as a duplicate.
+     */
+    private Map<String, Long> insertIgnoringDuplicates(List<String> names) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator idGenerator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Ingredient.class).getGenerator();
+        Query insert = entityManager.createNativeQuery("insert ignore into ingredient (id, name) values "
+                + String.join(", ", Collections.nCopies(names.size(), "(?, ?)")));
+        // Only pending Ingredient changes need flushing first, not the recipe being built
+        insert.unwrap(NativeQuery.class).addSynchronizedEntityClass(Ingredient.class);
+        Map<String, Long> ids = new HashMap<>();
+        int position = 1;
+        for (String name : names) {
+            Long id = (Long) idGenerator.generate(session, newIngredient(name), null, EventType.INSERT);
+            ids.put(name, id);
+            insert.setParameter(position++, id);
+            insert.setParameter(position++, name);
+        }
+        return insert.executeUpdate() == names.size() ? ids : null;
+    }
+
+    /**
+     * Names resolved in the current transaction, published to the dictionary when it
+     * commits and dropped when it rolls back. Outside a transaction, the dictionary.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> uncommitted() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return dictionary;
+        }
+        Map<String, Long> uncommitted = (Map<String, Long>) TransactionSynchronizationManager.getResource(uncommittedKey);
+        if (uncommitted == null) {
+            Map<String, Long> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(uncommittedKey, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dictionary.putAll(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(uncommittedKey);
+                }
+            });
+            uncommitted = created;
+        }
+        return uncommitted;
+    }
+
+    private static Ingredient newIngredient(String name) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName(name);
+        return ingredient;
+    }
+}
@@ -0,0 +1,102 @@
+package com.gourmet.recipes.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.event.RecipeVisibilityChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of recipe read models (including the owner) keyed by id.
+ * <p>
+ * Bounded by size and expired after a TTL; entries are dropped after any update
+ * or delete commits. Hit/miss/eviction counters are kept for sizing.
+ */
+@Component
+public class RecipeCache {
+
+    // Invalidation epochs, striped by id; a load only stores if its stripe's epoch is unchanged
+    private static final int STRIPES = 256;
+
+    private final Cache<Long, RecipeResponse> cache;
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    public RecipeCache(@Value("${recipes.cache.recipes.ttl:10m}") Duration ttl,
+                       @Value("${recipes.cache.recipes.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cached recipe, or the result of {@code loader}. Exceptions thrown by the
+     * loader (e.g. recipe not found) propagate and nothing is cached.
+     * <p>
+     * The loader runs outside the cache's map lock: Caffeine's computing get holds a
+     * monitor while loading, which would pin a virtual thread for the whole query.
+     * Concurrent misses on the same id may therefore load it more than once, and a
+     * load that an invalidation overtook returns its value without caching it.
+     */
+    public RecipeResponse get(Long id, Function<Long, RecipeResponse> loader) {
+        RecipeResponse cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(id);
+        long epoch = epochs.get(stripe);
+        RecipeResponse loaded = loader.apply(id);
+        // Checked under the key's lock, which invalidate() also takes to bump the epoch
+        cache.asMap().compute(id, (key, current) -> epochs.get(stripe) == epoch ? loaded : current);
+        return loaded;
+    }
+
+    public Optional<RecipeResponse> getIfPresent(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void invalidate(Long id) {
+        cache.asMap().compute(id, (key, current) -> {
+            epochs.incrementAndGet(stripe(key));
+            return null;
+        });
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        invalidate(event.recipeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        invalidate(event.recipeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisibilityChanged(RecipeVisibilityChangedEvent event) {
+        event.recipeIds().forEach(this::invalidate);
+    }
+}
@@ -0,0 +1,142 @@
+package com.gourmet.recipes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.mapper.RecipeMapper;
+import com.gourmet.recipes.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes recipes straight from a database cursor to an output stream.
+ * <p>
+ * Rows are read in chunks matching the repository fetch size; each chunk is
+ * mapped (lazy ingredients load in batches), written, and then evicted from the
+ * persistence context, so memory stays flat whatever the export size.
+ * NDJSON output uses the RecipeDTO shape and can be fed back to the import endpoint.
+ */
+@Service
+public class RecipeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeExportService.class);
+    private static final int CHUNK_SIZE = 500;
+
+    public enum Scope { MINE, PUBLIC, ALL }
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        public final MediaType mediaType;
+        public final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+    }
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeMapper mapper;
+    private final ObjectWriter jsonWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RecipeExportService(RecipeRepository recipeRepository, RecipeMapper mapper, ObjectMapper objectMapper) {
+        this.recipeRepository = recipeRepository;
+        this.mapper = mapper;
+        this.jsonWriter = objectMapper.writerFor(RecipeDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Streams the recipes in {@code scope} to {@code out}. Access to {@link Scope#ALL}
+     * must be checked by the caller before the response is committed.
+     */
+    @Transactional(readOnly = true)
+    public void exportRecipes(String username, Scope scope, Format format, OutputStream out) throws IOException {
+        logger.info("Exporting {} recipes for user {} as {}", scope, username, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write("name,vegetarian,servings,instructions,ingredients,public\n");
+        }
+
+        long count = 0;
+        try (Stream<Recipe> recipes = open(username, scope)) {
+            Iterator<Recipe> cursor = recipes.iterator();
+            List<Recipe> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (cursor.hasNext()) {
+                chunk.add(cursor.next());
+                if (chunk.size() == CHUNK_SIZE || !cursor.hasNext()) {
+                    for (Recipe recipe : chunk) {
+                        write(writer, format, mapper.toDto(recipe));
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} recipes for user {}", count, username);
+    }
+
+    // ===== Helpers =====
+
+    private Stream<Recipe> open(String username, Scope scope) {
+        return switch (scope) {
+            case MINE -> recipeRepository.streamByOwner(username);
+            case PUBLIC -> recipeRepository.streamPublic();
+            case ALL -> recipeRepository.streamAll();
+        };
+    }
+
+    private void write(Writer writer, Format format, RecipeDTO dto) throws IOException {
+        if (format == Format.NDJSON) {
+            jsonWriter.writeValue(writer, dto);
+            writer.write('\n');
+            return;
+        }
+        writer.write(csv(dto.getName()));
+        writer.write(',');
+        writer.write(Boolean.toString(dto.isVegetarian()));
+        writer.write(',');
+        writer.write(Integer.toString(dto.getServings()));
+        writer.write(',');
+        writer.write(csv(dto.getInstructions()));
+        writer.write(',');
+        writer.write(csv(dto.getIngredients() == null ? "" : String.join(";", dto.getIngredients())));
+        writer.write(',');
+        writer.write(Boolean.toString(dto.isPublic()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
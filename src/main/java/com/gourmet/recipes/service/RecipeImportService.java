@@ -0,0 +1,174 @@
+package com.gourmet.recipes.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourmet.recipes.dto.ImportReport;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.exception.InvalidInputException;
+import com.gourmet.recipes.mapper.RecipeMapper;
+import com.gourmet.recipes.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON recipes into the database in fixed-size chunks.
+ * <p>
+ * Each line is parsed and validated on its own; valid records are buffered and
+ * written as one transaction per chunk, so a failing chunk only rejects its own
+ * records. Ingredients for a whole chunk are resolved up front, after which the
+ * inserts go out as JDBC batches.
+ */
+@Service
+public class RecipeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeImportService.class);
+
+    private record PendingRecord(long line, RecipeDTO dto) {}
+
+    private final UserRepository userRepository;
+    private final RecipeMapper mapper;
+    private final IngredientResolver ingredientResolver;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int defaultBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RecipeImportService(UserRepository userRepository, RecipeMapper mapper, IngredientResolver ingredientResolver,
+                               ObjectMapper objectMapper, Validator validator, ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${recipes.import.batch-size:500}") int defaultBatchSize) {
+        this.userRepository = userRepository;
+        this.mapper = mapper;
+        this.ingredientResolver = ingredientResolver;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Imports every line of {@code ndjson} as a recipe owned by {@code username}.
+     * Blank lines are skipped and not counted.
+     */
+    public ImportReport importRecipes(String username, InputStream ndjson, Integer batchSize) throws IOException {
+        int chunkSize = batchSize == null ? defaultBatchSize : batchSize;
+        if (chunkSize < 1) {
+            throw new InvalidInputException("Batch size must be at least 1");
+        }
+        Long ownerId = userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new InvalidInputException("User not found: " + username));
+        logger.info("Importing recipes for user {} in batches of {}", username, chunkSize);
+
+        List<ImportReport.RecordError> errors = new ArrayList<>();
+        List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+        int total = 0;
+        int imported = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                total++;
+
+                RecipeDTO dto;
+                try {
+                    dto = objectMapper.readValue(line, RecipeDTO.class);
+                } catch (JsonProcessingException e) {
+                    errors.add(new ImportReport.RecordError(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+                    continue;
+                }
+                Set<ConstraintViolation<RecipeDTO>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    errors.add(new ImportReport.RecordError(lineNumber, violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "))));
+                    continue;
+                }
+
+                chunk.add(new PendingRecord(lineNumber, dto));
+                if (chunk.size() >= chunkSize) {
+                    imported += writeChunk(username, ownerId, chunk, errors);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += writeChunk(username, ownerId, chunk, errors);
+        }
+
+        logger.info("Import for user {} finished: {} of {} records imported", username, imported, total);
+        return new ImportReport(total, imported, total - imported, errors);
+    }
+
+    // Returns the number of records committed
+    private int writeChunk(String username, Long ownerId, List<PendingRecord> chunk, List<ImportReport.RecordError> errors) {
+        try {
+            chunkTransaction.executeWithoutResult(status -> {
+                // One resolution for the whole chunk; per-record mapping then hits the dictionary
+                ingredientResolver.resolve(chunk.stream()
+                        .flatMap(record -> record.dto().getIngredients().stream())
+                        .toList());
+                User owner = entityManager.getReference(User.class, ownerId);
+
+                List<Recipe> recipes = new ArrayList<>(chunk.size());
+                for (PendingRecord record : chunk) {
+                    Recipe recipe = mapper.toEntity(record.dto(), ingredientResolver);
+                    recipe.setUser(owner);
+                    recipe.setPublic(record.dto().isPublic());
+                    entityManager.persist(recipe);
+                    recipes.add(recipe);
+                }
+                entityManager.flush();
+
+                for (int i = 0; i < recipes.size(); i++) {
+                    RecipeDTO dto = chunk.get(i).dto();
+                    eventPublisher.publishEvent(new RecipeSavedEvent(recipes.get(i).getId(),
+                            dto.getName(), dto.getInstructions(), Set.copyOf(dto.getIngredients()),
+                            dto.isPublic(), username, dto.isVegetarian(), dto.getServings()));
+                }
+                // Keep the persistence context from growing across chunks
+                entityManager.clear();
+            });
+            return chunk.size();
+        } catch (RuntimeException e) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warn("Import batch starting at line {} rolled back: {}", chunk.get(0).line(), reason);
+            chunk.forEach(record -> errors.add(new ImportReport.RecordError(record.line(), "Batch rejected: " + reason)));
+            return 0;
+        }
+    }
+}
@@ -1,82 +1,154 @@
 package com.gourmet.recipes.service;
 
+import com.gourmet.recipes.dto.BulkRecipeRequest;
+import com.gourmet.recipes.dto.BulkResult;
+import com.gourmet.recipes.dto.FacetedPage;
+import com.gourmet.recipes.dto.KeysetSlice;
+import com.gourmet.recipes.dto.PantryMatchResponse;
 import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.dto.SearchFacets;
 import com.gourmet.recipes.entity.Recipe;
 import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.event.RecipeDeletedEvent;
+import com.gourmet.recipes.event.RecipeSavedEvent;
+import com.gourmet.recipes.event.RecipeVisibilityChangedEvent;
 import com.gourmet.recipes.exception.InvalidInputException;
 import com.gourmet.recipes.exception.RecipeNotFoundException;
 import com.gourmet.recipes.exception.UnauthorizedActionException;
+import com.gourmet.recipes.exception.VersionConflictException;
 import com.gourmet.recipes.mapper.RecipeMapper;
+import com.gourmet.recipes.repository.PantryScore;
 import com.gourmet.recipes.repository.RecipeSpecifications;
-import com.gourmet.recipes.repository.IngredientRepository;
 import com.gourmet.recipes.repository.RecipeRepository;
+import com.gourmet.recipes.repository.RecipeVersion;
 import org.springframework.data.jpa.domain.Specification;
 import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.CountMode;
+import com.gourmet.recipes.search.FacetIndex;
+import com.gourmet.recipes.search.FullTextIndex;
+import com.gourmet.recipes.search.IngredientIndex;
+import com.gourmet.recipes.search.IngredientMatch;
+import com.gourmet.recipes.search.KeysetCursor;
+import com.gourmet.recipes.search.SearchCountCache;
+import com.gourmet.recipes.search.VisibilityIndex;
+import io.micrometer.core.annotation.Timed;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Service
 @Transactional
+@Timed(value = "recipes.service", description = "RecipeService method latency")
 public class RecipeService {
 
     private static final Logger logger = LoggerFactory.getLogger(RecipeService.class);
+    private static final int MAX_SLICE_SIZE = 1000;
+    private static final int MAX_FACET_SIZE = 100;
+    // Ids per IN list of a bulk statement or a chunked id filter
+    private static final int BULK_CHUNK_SIZE = 1000;
+    // Ids bound as parameters of one search; larger ingredient matches go through the join tables
+    private static final int MAX_ID_PARAMETERS = 1000;
     private final RecipeRepository recipeRepository;
-    private final IngredientRepository ingredientRepository;
+    private final IngredientResolver ingredientResolver;
     private final UserRepository userRepository;
     private final RecipeMapper mapper;
+    private final IngredientIndex ingredientIndex;
+    private final FullTextIndex fullTextIndex;
+    private final VisibilityIndex visibilityIndex;
+    private final FacetIndex facetIndex;
+    private final RecipeCache recipeCache;
+    private final SearchCountCache searchCountCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RecipeService(RecipeRepository recipeRepository, IngredientRepository ingredientRepository, UserRepository userRepository, RecipeMapper mapper) {
+    public RecipeService(RecipeRepository recipeRepository, IngredientResolver ingredientResolver, UserRepository userRepository, RecipeMapper mapper,
+                         IngredientIndex ingredientIndex, FullTextIndex fullTextIndex, VisibilityIndex visibilityIndex,
+                         FacetIndex facetIndex, RecipeCache recipeCache, SearchCountCache searchCountCache, ApplicationEventPublisher eventPublisher) {
         this.recipeRepository = recipeRepository;
-        this.ingredientRepository = ingredientRepository;
+        this.ingredientResolver = ingredientResolver;
         this.userRepository = userRepository;
         this.mapper = mapper;
+        this.ingredientIndex = ingredientIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.visibilityIndex = visibilityIndex;
+        this.facetIndex = facetIndex;
+        this.recipeCache = recipeCache;
+        this.searchCountCache = searchCountCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Creates a recipe for the given user (looked up by username).
+     * READ_COMMITTED so IngredientResolver's re-read after INSERT IGNORE sees an
+     * ingredient that a concurrent transaction committed in the meantime.
      */
-    @Transactional
-    public Recipe createRecipe(String username, RecipeDTO dto) {
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public RecipeResponse createRecipe(String username, RecipeDTO dto) {
         logger.info("Creating recipe for user {}: {}", username, dto.getName());
 
         User owner = getUser(username);
 
-        Recipe recipe = mapper.toEntity(dto, ingredientRepository);
+        Recipe recipe = mapper.toEntity(dto, ingredientResolver);
         recipe.setUser(owner);
         recipe.setPublic(dto.isPublic());
         recipe.setCreatedAt(LocalDateTime.now());
         recipe.setUpdatedAt(LocalDateTime.now());
 
-        return recipeRepository.save(recipe);
+        Recipe saved = recipeRepository.save(recipe);
+        eventPublisher.publishEvent(RecipeSavedEvent.of(saved));
+        return mapper.toResponse(saved);
     }
 
-     public Recipe getRecipeById(Long id, String username, boolean isAdmin) {
-         Recipe recipe = recipeRepository.findById(id)
-                 .orElseThrow(() -> new RecipeNotFoundException("Recipe with ID " + id + " not found"));
-
-         if (!isAdmin && !recipe.isPublic() && !recipe.getUser().getUsername().equals(username)) {
-             throw new UnauthorizedActionException("You cannot view this recipe");
-         }
-
-         return recipe;
+    /**
+     * Not read-only: a miss fills the cache every node reads from, so it loads from
+     * the primary rather than a replica that may not have the latest write yet.
+     */
+    public RecipeResponse getRecipeById(Long id, String username, boolean isAdmin) {
+        RecipeResponse recipe = recipeCache.get(id, this::loadRecipe);
+        checkVisible(recipe.isPublic(), recipe.owner(), username, isAdmin);
+        return recipe;
     }
 
-    public String getRecipeOwnerUsername(Long recipeId) {
-        return recipeRepository.findById(recipeId)
-                .map(r -> r.getUser().getUsername())
-                .orElseThrow(() -> new RecipeNotFoundException("Recipe not found: " + recipeId));
+    /**
+     * Version of a recipe the caller may view, for conditional GETs. Taken from the
+     * cache when the recipe is there, otherwise from a version-only query.
+     */
+    @Transactional(readOnly = true)
+    public long getRecipeVersion(Long id, String username, boolean isAdmin) {
+        RecipeVersion version = recipeCache.getIfPresent(id)
+                .map(cached -> new RecipeVersion(cached.version(), cached.isPublic(), cached.owner()))
+                .orElseGet(() -> recipeRepository.findVersionById(id)
+                        .orElseThrow(() -> new RecipeNotFoundException("Recipe with ID " + id + " not found")));
+        checkVisible(version.isPublic(), version.owner(), username, isAdmin);
+        return version.version();
     }
 
-    @Transactional
-    public Recipe updateRecipe(String username, Long recipeId, RecipeDTO dto) {
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public RecipeResponse updateRecipe(String username, Long recipeId, RecipeDTO dto) {
         logger.info("Updating recipe {} for user {}", recipeId, username);
 
         // Fetch the user performing the update
@@ -92,11 +164,46 @@ public class RecipeService {
         }
 
         // MapStruct handles update mapping
-        mapper.updateRecipeFromDto(dto, recipe, ingredientRepository);
+        mapper.updateRecipeFromDto(dto, recipe, ingredientResolver);
         recipe.setPublic(dto.isPublic());
         recipe.setUpdatedAt(LocalDateTime.now());
 
-        return recipeRepository.save(recipe);
+        // Flushed so the response carries the bumped version
+        Recipe saved = recipeRepository.saveAndFlush(recipe);
+        eventPublisher.publishEvent(RecipeSavedEvent.of(saved));
+        return mapper.toResponse(saved);
+    }
+
+    /**
+     * Optimistic update against the version the client read. Version and ownership are
+     * checked by the UPDATE statement itself, so nothing is read beforehand; only when
+     * it matches no row is the recipe looked up, to tell 404, 403 and 409 apart.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public RecipeResponse updateRecipe(String username, Long recipeId, RecipeDTO dto, long expectedVersion) {
+        logger.info("Updating recipe {} at version {} for user {}", recipeId, expectedVersion, username);
+
+        int updated = recipeRepository.updateIfCurrent(recipeId, expectedVersion, username, dto.getName(),
+                dto.isVegetarian(), dto.getServings(), dto.getInstructions(), dto.isPublic(), LocalDateTime.now());
+        if (updated == 0) {
+            RecipeVersion current = recipeRepository.findVersionById(recipeId)
+                    .orElseThrow(() -> new RecipeNotFoundException("Recipe not found: " + recipeId));
+            if (!current.owner().equals(username)) {
+                throw new UnauthorizedActionException("You do not own this recipe");
+            }
+            throw new VersionConflictException("Recipe " + recipeId + " is at version " + current.version()
+                    + ", not " + expectedVersion);
+        }
+
+        // Loaded after the update, so it is already at the new version; only the
+        // ingredient collection is left to change
+        Recipe recipe = recipeRepository.findById(recipeId)
+                .orElseThrow(() -> new RecipeNotFoundException("Recipe not found: " + recipeId));
+        mapper.updateRecipeFromDto(dto, recipe, ingredientResolver);
+
+        Recipe saved = recipeRepository.saveAndFlush(recipe);
+        eventPublisher.publishEvent(RecipeSavedEvent.of(saved));
+        return mapper.toResponse(saved);
     }
 
 
@@ -113,25 +220,200 @@ public class RecipeService {
         }
 
         recipeRepository.delete(recipe);
+        eventPublisher.publishEvent(new RecipeDeletedEvent(recipeId));
     }
 
-    public Page<Recipe> searchRecipes(String name,
-                                      Boolean vegetarian,
-                                      Integer servings,
-                                      List<String> ingredients,
-                                      List<String> excludedIngredients,
-                                      String text,
-                                      String username,
-                                      boolean isAdmin,
-                                      Pageable pageable) {
+    /**
+     * Deletes the caller's recipes among those selected by ids or filter with set-based
+     * statements: one id query, then per chunk of ids a join-row delete and a recipe
+     * delete, each restricted to the caller's recipes. No entity is loaded.
+     */
+    @Transactional
+    public BulkResult deleteRecipes(String username, BulkRecipeRequest request) {
+        List<Long> ids = ownedIds(username, request, null);
+        logger.info("Bulk deleting {} recipes for user {}", ids.size(), username);
+
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            affected += recipeRepository.deleteOwned(chunk, username);
+        }
+        ids.forEach(id -> eventPublisher.publishEvent(new RecipeDeletedEvent(id)));
+        return new BulkResult(ids.size(), affected);
+    }
+
+    /**
+     * Makes the caller's recipes among those selected by ids or filter public or private,
+     * like {@link #deleteRecipes}. Recipes already at the target visibility are left
+     * alone; the others get a new version.
+     */
+    @Transactional
+    public BulkResult changeVisibility(String username, BulkRecipeRequest request) {
+        Boolean isPublic = request.getIsPublic();
+        if (isPublic == null) {
+            throw new InvalidInputException("isPublic is required");
+        }
+        // Only those not already at the target, so events and versions cover real changes
+        List<Long> ids = ownedIds(username, request,
+                isPublic ? Specification.not(RecipeSpecifications.isPublic()) : RecipeSpecifications.isPublic());
+        logger.info("Bulk making {} recipes {} for user {}", ids.size(), isPublic ? "public" : "private", username);
 
+        int affected = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : chunks(ids)) {
+            affected += recipeRepository.updateVisibilityOwned(chunk, username, isPublic, now);
+        }
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new RecipeVisibilityChangedEvent(ids, isPublic));
+        }
+        return new BulkResult(ids.size(), affected);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RecipeResponse> searchRecipes(String name,
+                                              Boolean vegetarian,
+                                              Integer servings,
+                                              List<String> ingredients,
+                                              List<String> excludedIngredients,
+                                              String text,
+                                              String username,
+                                              boolean isAdmin,
+                                              Pageable pageable) {
+
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setName(name);
+        criteria.setVegetarian(vegetarian);
+        criteria.setServings(servings);
+        criteria.setIngredients(ingredients);
+        criteria.setExcludedIngredients(excludedIngredients);
+        criteria.setText(text);
+        return searchRecipes(criteria, username, isAdmin, pageable);
+    }
+
+    /**
+     * Results are mapped to {@link RecipeResponse} inside the transaction; owners and
+     * ingredients of the page are batch-loaded once instead of during serialization.
+     * The total is computed according to the criteria's {@link CountMode}. With
+     * {@code facets} set a {@link FacetedPage} is returned.
+     */
+    @Transactional(readOnly = true)
+    public Page<RecipeResponse> searchRecipes(RecipeSearchCriteria criteria,
+                                              String username,
+                                              boolean isAdmin,
+                                              Pageable pageable) {
+
+        String rankedQuery = criteria.isRanked() && fullTextIndex.isReady() ? rankedQuery(criteria) : null;
+
+        Optional<Specification<Recipe>> spec = filterSpec(criteria, rankedQuery == null, username, isAdmin);
+        Page<RecipeResponse> page;
+        if (spec.isEmpty()) {
+            page = Page.empty(pageable);
+        } else if (rankedQuery != null) {
+            page = rankedSearch(rankedQuery, criteria, spec.get(), username, isAdmin, pageable).map(mapper::toResponse);
+        } else {
+            Specification<Recipe> filter = spec.get();
+            List<Recipe> content = recipeRepository.findPageContent(filter, pageable);
+            // Only counts when the page itself does not reveal the total
+            page = PageableExecutionUtils.getPage(content, pageable, () -> countTotal(filter, criteria, username, isAdmin))
+                    .map(mapper::toResponse);
+        }
+        return criteria.isFacets() ? new FacetedPage<>(page, facets(criteria, spec, rankedQuery, username, isAdmin)) : page;
+    }
+
+    /**
+     * Recipes ranked by how much of them the pantry covers, best first, each with the
+     * ingredients still missing. Scored in memory by the ingredient index within the
+     * caller's visibility; while the indexes warm up the join table is aggregated instead.
+     */
+    @Transactional(readOnly = true)
+    public List<PantryMatchResponse> matchPantry(List<String> pantry, String username, boolean isAdmin, int limit) {
+        Set<String> have = pantry.stream().map(IngredientIndex::normalize).collect(Collectors.toSet());
+        List<PantryScore> scores = ingredientIndex.isReady() && visibilityIndex.isReady()
+                ? ingredientIndex.matchPantry(have, visibilityIndex.visibleTo(username, isAdmin), limit)
+                : recipeRepository.findPantryScores(have, username, isAdmin, PageRequest.of(0, limit));
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Recipe> byId = recipeRepository.findByIdIn(scores.stream().map(PantryScore::recipeId).toList())
+                .stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        List<PantryMatchResponse> matches = new ArrayList<>(scores.size());
+        for (PantryScore score : scores) {
+            Recipe recipe = byId.get(score.recipeId());
+            if (recipe == null) continue; // deleted since it was scored
+            RecipeResponse response = mapper.toResponse(recipe);
+            List<String> missing = response.ingredients().stream()
+                    .filter(name -> !have.contains(IngredientIndex.normalize(name)))
+                    .sorted()
+                    .toList();
+            matches.add(new PantryMatchResponse(response, score.matched(), score.total(), score.coverage(), missing));
+        }
+        return matches;
+    }
+
+    /**
+     * Keyset ("seek") pagination: continues strictly after the cursor position instead
+     * of using OFFSET, and runs no count query. Without a cursor the first slice in
+     * {@code sortKey}/{@code direction} order is returned; with one, the cursor's own
+     * order wins. Relevance ranking does not apply here.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<RecipeResponse> scrollRecipes(RecipeSearchCriteria criteria,
+                                                     String username,
+                                                     boolean isAdmin,
+                                                     String cursor,
+                                                     KeysetCursor.SortKey sortKey,
+                                                     Sort.Direction direction,
+                                                     int size) {
+
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);
+        KeysetCursor.SortKey key = position == null ? sortKey : position.sortKey();
+        Sort.Direction order = position == null ? direction : position.direction();
+
+        Optional<Specification<Recipe>> spec = filterSpec(criteria, true, username, isAdmin);
+        if (spec.isEmpty()) {
+            return new KeysetSlice<>(List.of(), 0, false, null);
+        }
+        Specification<Recipe> seek = position == null ? spec.get() : spec.get().and(RecipeSpecifications.after(position));
+        Sort sort = KeysetCursor.sort(key, order);
+
+        // One extra row tells us whether another slice exists
+        List<Recipe> rows = recipeRepository.findLimited(seek, sort, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<Recipe> content = hasNext ? rows.subList(0, limit) : rows;
+        String next = hasNext ? KeysetCursor.after(key, order, content.get(content.size() - 1)).encode() : null;
+        return new KeysetSlice<>(content.stream().map(mapper::toResponse).toList(), content.size(), hasNext, next);
+    }
+
+    /**
+     * Combines the search filters and visibility rule into one specification.
+     * Empty when the ingredient filters already rule out every recipe.
+     */
+    private Optional<Specification<Recipe>> filterSpec(RecipeSearchCriteria criteria,
+                                                       boolean textAsLike,
+                                                       String username,
+                                                       boolean isAdmin) {
         Specification<Recipe> spec = Specification
-                .where(RecipeSpecifications.hasName(name))
-                .and(RecipeSpecifications.isVegetarian(vegetarian))
-                .and(RecipeSpecifications.hasServings(servings))
-                .and(RecipeSpecifications.hasIngredients(ingredients))
-                .and(RecipeSpecifications.instructionsContains(text))
-                .and(RecipeSpecifications.excludesIngredients(excludedIngredients));
+                .where(RecipeSpecifications.isVegetarian(criteria.getVegetarian()))
+                .and(RecipeSpecifications.hasServings(criteria.getServings()));
+
+        if (textAsLike) {
+            spec = spec
+                    .and(RecipeSpecifications.hasName(criteria.getName()))
+                    .and(RecipeSpecifications.instructionsContains(criteria.getText()));
+        }
+
+        if (ingredientIndex.isReady()) {
+            Specification<Recipe> ingredientSpec = ingredientSpec(criteria);
+            if (ingredientSpec == null) {
+                return Optional.empty();
+            }
+            spec = spec.and(ingredientSpec);
+        } else {
+            // Index still warming up: answer from the join tables
+            spec = spec.and(ingredientJoinSpec(criteria));
+        }
 
         if (!isAdmin) {
             spec = spec.and(
@@ -139,14 +421,239 @@ public class RecipeService {
                             .or(RecipeSpecifications.isPublic())
             );
         }
+        return Optional.of(spec);
+    }
 
-        return recipeRepository.findAll(spec, pageable);
+    /**
+     * Relevance-ordered search: the full-text index supplies scored candidates and only
+     * the requested page of entities is loaded. With the other indexes ready, the
+     * filters are a candidate bitmap applied before ranking; while they warm up, every
+     * hit is filtered in the database in chunks. Either way the total counts every match.
+     * The pageable's sort is ignored in favour of score.
+     */
+    private Page<Recipe> rankedSearch(String query,
+                                      RecipeSearchCriteria criteria,
+                                      Specification<Recipe> spec,
+                                      String username,
+                                      boolean isAdmin,
+                                      Pageable pageable) {
+        List<Long> rankedIds;
+        long total;
+        if (facetIndex.isReady() && ingredientIndex.isReady() && visibilityIndex.isReady()) {
+            int limit = pageable.isPaged()
+                    ? (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE)
+                    : Integer.MAX_VALUE;
+            FullTextIndex.Ranking ranking = fullTextIndex.search(query, indexedMatches(criteria, username, isAdmin), limit);
+            rankedIds = ranking.hits().stream().map(FullTextIndex.Hit::recipeId).toList();
+            total = ranking.total();
+        } else {
+            List<Long> hitIds = fullTextIndex.search(query).stream()
+                    .map(FullTextIndex.Hit::recipeId)
+                    .toList();
+            rankedIds = new ArrayList<>();
+            for (List<Long> chunk : chunks(hitIds)) {
+                Set<Long> allowed = new HashSet<>(recipeRepository.findIds(spec.and(RecipeSpecifications.idIn(chunk))));
+                chunk.stream().filter(allowed::contains).forEach(rankedIds::add);
+            }
+            total = rankedIds.size();
+        }
+        if (rankedIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), rankedIds.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), rankedIds.size()) : rankedIds.size();
+        List<Long> pageIds = rankedIds.subList(from, to);
+
+        Map<Long, Recipe> byId = recipeRepository.findByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        List<Recipe> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, total);
     }
+
+    /**
+     * Facet counts over every match of the search. With the indexes ready the result set
+     * is built as a bitmap and intersected with the facet bitmaps; only name/text LIKE
+     * filters, which no index answers, cost one id query. While the indexes warm up each
+     * facet is a GROUP BY over the same filters.
+     */
+    private SearchFacets facets(RecipeSearchCriteria criteria,
+                                Optional<Specification<Recipe>> spec,
+                                String rankedQuery,
+                                String username,
+                                boolean isAdmin) {
+        int size = Math.max(1, Math.min(criteria.getFacetSize(), MAX_FACET_SIZE));
+        boolean indexed = facetIndex.isReady() && ingredientIndex.isReady() && visibilityIndex.isReady();
+        if (spec.isPresent() && !indexed) {
+            return new SearchFacets(
+                    FacetIndex.vegetarianFacet(recipeRepository.countBy(spec.get(), "vegetarian", Boolean.class)),
+                    FacetIndex.servingsFacet(recipeRepository.countBy(spec.get(), "servings", Integer.class)),
+                    FacetIndex.ingredientFacet(recipeRepository.countTopIngredients(spec.get(), size)));
+        }
+
+        RoaringBitmap matches = spec.isEmpty() ? new RoaringBitmap() : matchingIds(criteria, spec.get(), rankedQuery, username, isAdmin);
+        return new SearchFacets(
+                FacetIndex.vegetarianFacet(facetIndex.countVegetarian(matches)),
+                FacetIndex.servingsFacet(facetIndex.countServings(matches)),
+                FacetIndex.ingredientFacet(ingredientIndex.topIngredients(matches, size)));
+    }
+
+    // Every recipe the search matches, from the indexes where they cover its filters
+    private RoaringBitmap matchingIds(RecipeSearchCriteria criteria,
+                                      Specification<Recipe> spec,
+                                      String rankedQuery,
+                                      String username,
+                                      boolean isAdmin) {
+        if (rankedQuery == null && (criteria.getName() != null || criteria.getText() != null)) {
+            return toBitmap(recipeRepository.findIds(spec));
+        }
+
+        RoaringBitmap matches = indexedMatches(criteria, username, isAdmin);
+        if (rankedQuery != null) {
+            matches.and(fullTextIndex.matching(rankedQuery));
+        }
+        return matches;
+    }
+
+    // Recipes passing the filters the facet, ingredient and visibility indexes answer
+    private RoaringBitmap indexedMatches(RecipeSearchCriteria criteria, String username, boolean isAdmin) {
+        RoaringBitmap matches = facetIndex.matching(criteria.getVegetarian(), criteria.getServings());
+        List<String> included = criteria.getIngredients();
+        if (included != null && !included.isEmpty()) {
+            matches.and(ingredientIndex.match(included, criteria.getIngredientMatch()));
+        }
+        List<String> excluded = criteria.getExcludedIngredients();
+        if (excluded != null && !excluded.isEmpty()) {
+            matches.andNot(ingredientIndex.matchAny(excluded));
+        }
+        RoaringBitmap visible = visibilityIndex.visibleTo(username, isAdmin);
+        if (visible != null) {
+            matches.and(visible);
+        }
+        return matches;
+    }
+
     // ===== Helpers =====
 
+    // Ids of the caller's recipes selected by the request, narrowed by {@code extra} when given
+    private List<Long> ownedIds(String username, BulkRecipeRequest request, Specification<Recipe> extra) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new InvalidInputException("Give either ids or a filter");
+        }
+
+        if (byIds) {
+            // Chunked like the writes, so no IN list grows with the request
+            List<Long> ids = new ArrayList<>();
+            for (List<Long> chunk : chunks(request.getIds().stream().distinct().toList())) {
+                ids.addAll(recipeRepository.findIds(owned(RecipeSpecifications.idIn(chunk), username, extra)));
+            }
+            return ids;
+        }
+        return filterSpec(request.getFilter(), true, username, false)
+                .map(selection -> recipeRepository.findIds(owned(selection, username, extra)))
+                .orElse(List.of());
+    }
+
+    private static Specification<Recipe> owned(Specification<Recipe> selection, String username,
+                                               Specification<Recipe> extra) {
+        Specification<Recipe> spec = selection.and(RecipeSpecifications.belongsToUser(username));
+        return extra == null ? spec : spec.and(extra);
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private long countTotal(Specification<Recipe> filter, RecipeSearchCriteria criteria, String username, boolean isAdmin) {
+        CountMode mode = criteria.getCountMode() == null ? CountMode.EXACT : criteria.getCountMode();
+        if (mode == CountMode.EXACT) {
+            return recipeRepository.count(filter);
+        }
+        return searchCountCache.get(SearchCountCache.Key.of(criteria, username, isAdmin),
+                mode == CountMode.ESTIMATED, () -> recipeRepository.count(filter));
+    }
+
+    // Cache loader; runs inside the calling read transaction
+    private RecipeResponse loadRecipe(Long id) {
+        return recipeRepository.findById(id)
+                .map(mapper::toResponse)
+                .orElseThrow(() -> new RecipeNotFoundException("Recipe with ID " + id + " not found"));
+    }
+
+    private static void checkVisible(boolean isPublic, String owner, String username, boolean isAdmin) {
+        if (!isAdmin && !isPublic && !owner.equals(username)) {
+            throw new UnauthorizedActionException("You cannot view this recipe");
+        }
+    }
+
     private User getUser(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new InvalidInputException("User not found: " + username));
     }
 
+    /**
+     * Resolves the ingredient include/exclude filters against the ingredient index.
+     * Returns a spec restricting recipe ids (possibly a no-op spec), or null when
+     * no recipe can match. Id sets above {@link #MAX_ID_PARAMETERS} are left to the
+     * join tables instead of being bound one parameter per id.
+     */
+    private Specification<Recipe> ingredientSpec(RecipeSearchCriteria criteria) {
+        List<String> included = criteria.getIngredients();
+        List<String> excluded = criteria.getExcludedIngredients();
+        RoaringBitmap excludedIds = excluded == null || excluded.isEmpty()
+                ? new RoaringBitmap()
+                : ingredientIndex.matchAny(excluded);
+
+        if (included == null || included.isEmpty()) {
+            return excludedIds.getCardinality() > MAX_ID_PARAMETERS
+                    ? RecipeSpecifications.excludesIngredients(excluded)
+                    : RecipeSpecifications.idNotIn(toIds(excludedIds));
+        }
+
+        RoaringBitmap candidates = ingredientIndex.match(included, criteria.getIngredientMatch());
+        candidates.andNot(excludedIds);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.getCardinality() > MAX_ID_PARAMETERS
+                ? ingredientJoinSpec(criteria)
+                : RecipeSpecifications.idIn(toIds(candidates));
+    }
+
+    private static Specification<Recipe> ingredientJoinSpec(RecipeSearchCriteria criteria) {
+        return Specification
+                .where(criteria.getIngredientMatch() == IngredientMatch.ALL
+                        ? RecipeSpecifications.hasAllIngredients(criteria.getIngredients())
+                        : RecipeSpecifications.hasIngredients(criteria.getIngredients()))
+                .and(RecipeSpecifications.excludesIngredients(criteria.getExcludedIngredients()));
+    }
+
+    private static String rankedQuery(RecipeSearchCriteria criteria) {
+        String query = Stream.of(criteria.getName(), criteria.getText())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "))
+                .trim();
+        return query.isEmpty() ? null : query;
+    }
+
+    private static RoaringBitmap toBitmap(List<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        ids.forEach(id -> bitmap.add(Math.toIntExact(id)));
+        return bitmap;
+    }
+
+    private static List<Long> toIds(RoaringBitmap bitmap) {
+        List<Long> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
 }
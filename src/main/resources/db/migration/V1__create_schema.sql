@@ -0,0 +1,47 @@
+-- Schema as ddl-auto=update created it before the migrations existed (IDENTITY ids, no
+-- optimistic locking). Such databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so everything added since lives in later migrations.
+
+create table app_user (
+    id       bigint       not null auto_increment,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id),
+    constraint uk_app_user_username unique (username)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint       not null,
+    role    varchar(255) not null,
+    primary key (user_id, role),
+    constraint fk_user_roles_user foreign key (user_id) references app_user (id)
+) engine=InnoDB;
+
+create table ingredient (
+    id   bigint       not null auto_increment,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_ingredient_name unique (name)
+) engine=InnoDB;
+
+create table recipe (
+    id           bigint       not null auto_increment,
+    name         varchar(255) not null,
+    vegetarian   bit          not null,
+    servings     integer      not null,
+    instructions text,
+    created_at   datetime(6),
+    updated_at   datetime(6),
+    is_public    bit          not null,
+    user_id      bigint       not null,
+    primary key (id),
+    constraint fk_recipe_user foreign key (user_id) references app_user (id)
+) engine=InnoDB;
+
+create table recipe_ingredient (
+    recipe_id     bigint not null,
+    ingredient_id bigint not null,
+    primary key (recipe_id, ingredient_id),
+    constraint fk_recipe_ingredient_recipe foreign key (recipe_id) references recipe (id),
+    constraint fk_recipe_ingredient_ingredient foreign key (ingredient_id) references ingredient (id)
+) engine=InnoDB;
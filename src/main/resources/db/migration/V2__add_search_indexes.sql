@@ -0,0 +1,21 @@
+-- Indexes behind the RecipeSpecifications predicates and the visibility filter.
+-- InnoDB appends the primary key (id) to every secondary index, which the keyset
+-- (sort key, id) order relies on.
+
+-- isPublic(), and public recipes in created_at order (default scroll order)
+create index idx_recipe_public_created on recipe (is_public, created_at);
+
+-- belongsToUser() / "mine" and the owner half of the visibility OR, in created_at order;
+-- also serves the user_id foreign key
+create index idx_recipe_user_created on recipe (user_id, created_at);
+
+-- hasServings(), alone or with isVegetarian(); vegetarian on its own is too unselective to index
+create index idx_recipe_servings_vegetarian on recipe (servings, vegetarian);
+
+-- Keyset scrolling by name (sortBy=NAME). hasName() is a contains match that no B-tree
+-- can serve; it is answered from the in-memory full-text index once that is ready.
+create index idx_recipe_name on recipe (name);
+
+-- hasIngredients() / hasAllIngredients() / excludesIngredients(): from ingredient ids
+-- (uk_ingredient_name) to their recipes
+create index idx_recipe_ingredient_ingredient on recipe_ingredient (ingredient_id, recipe_id);
@@ -0,0 +1,14 @@
+-- Optimistic locking: the version behind If-Match updates and recipe ETags.
+-- Rows that predate it start at 0.
+alter table recipe add column version bigint not null default 0;
+
+-- Pooled id sequences (allocationSize 50) instead of IDENTITY, so inserts can be
+-- JDBC-batched; MySQL has no sequences, so Hibernate keeps them in tables. The ids
+-- stay auto_increment columns, which Hibernate now always fills itself.
+-- The pooled generator hands out the 50 ids up to next_val, so existing rows need
+-- next_val a full block past the highest id.
+create table recipe_seq (next_val bigint) engine=InnoDB;
+insert into recipe_seq select coalesce(max(id), 0) + 50 + 1 from recipe;
+
+create table ingredient_seq (next_val bigint) engine=InnoDB;
+insert into ingredient_seq select coalesce(max(id), 0) + 50 + 1 from ingredient;
@@ -0,0 +1,23 @@
+-- Ingredient names are stored trimmed and lower-cased (IngredientIndex.normalize), so
+-- searches compare the bare name column and can use uk_ingredient_name. Rows written
+-- before that may differ only in case or padding: merge each such group into its lowest
+-- id, then normalize what is left.
+
+create table ingredient_merge as
+select i.id, keep.id as keep_id
+from ingredient i
+join (select lower(trim(name)) as normalized, min(id) as id
+      from ingredient
+      group by lower(trim(name))) keep on keep.normalized = lower(trim(i.name))
+where i.id <> keep.id;
+
+insert ignore into recipe_ingredient (recipe_id, ingredient_id)
+select ri.recipe_id, m.keep_id
+from recipe_ingredient ri
+join ingredient_merge m on m.id = ri.ingredient_id;
+
+delete from recipe_ingredient where ingredient_id in (select id from ingredient_merge);
+delete from ingredient where id in (select id from ingredient_merge);
+drop table ingredient_merge;
+
+update ingredient set name = lower(trim(name));
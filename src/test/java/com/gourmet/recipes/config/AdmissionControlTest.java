@@ -0,0 +1,67 @@
+package com.gourmet.recipes.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tokenBucketAllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        // Fourth at once: one emission interval (100 ms) away, and nothing taken
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(SECOND / 20)).isEqualTo(SECOND / 20);
+
+        assertThat(bucket.tryAcquire(SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 10)).isPositive();
+        // Idle for long: back to a full burst, not more
+        assertThat(bucket.tryAcquire(10 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(10 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(10 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(10 * SECOND)).isPositive();
+    }
+
+    @Test
+    void concurrencyLimitRejectsAtLimitAndFollowsLatency() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 50, 2.0);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+        limit.release();
+        assertThat(limit.tryAcquire()).isTrue();
+
+        // Fully used at steady latency: grows
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10_000_000, limit.limit());
+        }
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(4);
+
+        // Latency far above the baseline: shrinks towards the minimum
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(200_000_000, limit.limit());
+        }
+        assertThat(limit.limit()).isLessThan(grown).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void concurrencyLimitDoesNotGrowWhenBarelyUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 50, 2.0);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10_000_000, 1);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+}
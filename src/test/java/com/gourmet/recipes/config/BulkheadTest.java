@@ -0,0 +1,91 @@
+package com.gourmet.recipes.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        Workload.set(null);
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void queuesUpToLimitAndRejectsBeyond() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, TimeUnit.SECONDS.toNanos(10));
+        assertThat(bulkhead.acquire()).isEqualTo(Bulkhead.Admission.ADMITTED);
+
+        CompletableFuture<Bulkhead.Admission> waiting = CompletableFuture.supplyAsync(bulkhead::acquire);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.queued() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(bulkhead.queued()).isEqualTo(1);
+
+        // Queue full: turned away without waiting
+        assertThat(bulkhead.acquire()).isEqualTo(Bulkhead.Admission.QUEUE_FULL);
+
+        bulkhead.release();
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo(Bulkhead.Admission.ADMITTED);
+        assertThat(bulkhead.active()).isEqualTo(1);
+        assertThat(bulkhead.queued()).isZero();
+    }
+
+    @Test
+    void queuedRequestTimesOut() {
+        Bulkhead bulkhead = new Bulkhead(1, 4, TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(bulkhead.acquire()).isEqualTo(Bulkhead.Admission.ADMITTED);
+
+        assertThat(bulkhead.acquire()).isEqualTo(Bulkhead.Admission.TIMED_OUT);
+        assertThat(bulkhead.queued()).isZero();
+
+        bulkhead.release();
+        assertThat(bulkhead.acquire()).isEqualTo(Bulkhead.Admission.ADMITTED);
+    }
+
+    @Test
+    void connectionsComeFromTheWorkloadsOwnPool() throws SQLException {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(
+                pool("shared"), Map.of(Workload.SEARCH, pool("search")));
+        routing.afterPropertiesSet();
+
+        assertThat(target(routing)).isEqualTo("shared");
+        Workload.set(Workload.SEARCH);
+        assertThat(target(routing)).isEqualTo("search");
+        // No pool of its own
+        Workload.set(Workload.WRITE);
+        assertThat(target(routing)).isEqualTo("shared");
+    }
+
+    private HikariDataSource pool(String database) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPoolName(database);
+        HikariDataSource pool = new HikariDataSource(config);
+        pools.add(pool);
+        return pool;
+    }
+
+    private static String target(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL().substring("jdbc:h2:mem:".length());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.gourmet.recipes.config;
+
+import com.gourmet.recipes.service.CredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAuthenticationProviderTest {
+
+    private static final UserDetails ALICE = User.withUsername("alice").password("{noop}secret").roles("USER").build();
+
+    private final AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+    private final CredentialCache credentialCache = new CredentialCache(Duration.ofMinutes(5), 100);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingAuthenticationProvider provider =
+            new CachingAuthenticationProvider(delegate, credentialCache, meterRegistry);
+
+    @Test
+    void verifiesOnMissAndAnswersRepeatsFromCache() {
+        verifiedAs("secret");
+
+        Authentication first = provider.authenticate(login("secret"));
+        Authentication second = provider.authenticate(login("secret"));
+
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second.getPrincipal()).isEqualTo(ALICE);
+        assertThat(second.getCredentials()).isNull();
+        verify(delegate, times(1)).authenticate(any());
+        assertThat(count("miss", "success")).isEqualTo(1);
+        assertThat(count("hit", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void wrongPasswordIsVerifiedAndNeverCached() {
+        verifiedAs("secret");
+        provider.authenticate(login("secret"));
+
+        assertThatThrownBy(() -> provider.authenticate(login("guess"))).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(login("guess"))).isInstanceOf(BadCredentialsException.class);
+
+        assertThat(credentialCache.lookup("alice", "guess")).isEmpty();
+        assertThat(credentialCache.lookup("alice", "secret")).contains(ALICE);
+        assertThat(count("miss", "failure")).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationForcesVerificationAgain() {
+        verifiedAs("secret");
+        provider.authenticate(login("secret"));
+
+        credentialCache.invalidate("alice");
+        provider.authenticate(login("secret"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void loginVerifiedAcrossAnInvalidationIsNotStored() {
+        // The password change commits while the old password is being checked
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            credentialCache.invalidate("alice");
+            return verified(invocation.getArgument(0));
+        });
+
+        assertThat(provider.authenticate(login("secret")).isAuthenticated()).isTrue();
+
+        assertThat(credentialCache.lookup("alice", "secret")).isEmpty();
+    }
+
+    private void verifiedAs(String password) {
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            Authentication attempt = invocation.getArgument(0);
+            if (!password.equals(attempt.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return verified(attempt);
+        });
+    }
+
+    private static Authentication verified(Authentication attempt) {
+        return UsernamePasswordAuthenticationToken.authenticated(ALICE, attempt.getCredentials(), ALICE.getAuthorities());
+    }
+
+    private static Authentication login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("alice", password);
+    }
+
+    private long count(String cache, String outcome) {
+        return meterRegistry.timer("recipes.auth", "cache", cache, "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,91 @@
+package com.gourmet.recipes.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between separate in-memory H2 databases standing in for the primary and replicas.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void writesUsePrimaryAndReadsRotateOverReplicas() throws SQLException {
+        DataSource routing = routing(ReadWriteRoutingDataSource.Selection.ROUND_ROBIN);
+
+        assertThat(target(routing)).isEqualTo("primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(List.of(target(routing), target(routing), target(routing)))
+                .containsExactly("replica0", "replica1", "replica0");
+    }
+
+    @Test
+    void leastLoadedAvoidsBusyReplica() throws SQLException {
+        DataSource routing = routing(ReadWriteRoutingDataSource.Selection.LEAST_LOADED);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (Connection held = open(routing)) {
+            String busy = database(held);
+            String other = busy.equals("replica0") ? "replica1" : "replica0";
+
+            assertThat(List.of(target(routing), target(routing), target(routing)))
+                    .containsOnly(other);
+        }
+    }
+
+    private DataSource routing(ReadWriteRoutingDataSource.Selection selection) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                pool("primary"), List.of(pool("replica0"), pool("replica1")), selection);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource pool(String database) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPoolName(database);
+        HikariDataSource pool = new HikariDataSource(config);
+        pools.add(pool);
+        return pool;
+    }
+
+    // Name of the database a fresh connection actually lands on
+    private static String target(DataSource dataSource) throws SQLException {
+        try (Connection connection = open(dataSource)) {
+            return database(connection);
+        }
+    }
+
+    private static Connection open(DataSource dataSource) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        // The lazy proxy only routes once the connection is used
+        connection.createStatement().close();
+        return connection;
+    }
+
+    private static String database(Connection connection) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        return url.substring("jdbc:h2:mem:".length());
+    }
+}
@@ -0,0 +1,137 @@
+package com.gourmet.recipes.integration;
+
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.entity.Ingredient;
+import com.gourmet.recipes.repository.IngredientRepository;
+import com.gourmet.recipes.service.RecipeService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on a database created by ddl-auto=update before the
+ * migrations existed, already holding rows: Flyway baselines it at V1 and runs the
+ * later migrations, then Hibernate validates the entities against the result.
+ */
+@Testcontainers
+@SpringBootTest
+class LegacySchemaMigrationTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0.33")
+            .withDatabaseName("recipes")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    // Runs before the application context, which migrates on startup
+    @BeforeAll
+    static void createLegacySchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+             Statement statement = connection.createStatement()) {
+            // DDL as Hibernate generated it for the entities before the migrations: IDENTITY ids,
+            // no version column, no sequence tables
+            statement.execute("create table app_user (id bigint not null auto_increment, password varchar(255) not null, "
+                    + "username varchar(255) not null, primary key (id)) engine=InnoDB");
+            statement.execute("create table ingredient (id bigint not null auto_increment, name varchar(255) not null, "
+                    + "primary key (id)) engine=InnoDB");
+            statement.execute("create table recipe (is_public bit not null, servings integer not null, "
+                    + "vegetarian bit not null, created_at datetime(6), id bigint not null auto_increment, "
+                    + "updated_at datetime(6), user_id bigint not null, instructions TEXT, name varchar(255) not null, "
+                    + "primary key (id)) engine=InnoDB");
+            statement.execute("create table recipe_ingredient (ingredient_id bigint not null, recipe_id bigint not null, "
+                    + "primary key (ingredient_id, recipe_id)) engine=InnoDB");
+            statement.execute("create table user_roles (user_id bigint not null, role varchar(255) not null, "
+                    + "primary key (user_id, role)) engine=InnoDB");
+            statement.execute("alter table app_user add constraint UK_3k4cplvh82srueuttfkwnylq0 unique (username)");
+            statement.execute("alter table ingredient add constraint UK_bcuaj7qd3p2m6q5e5qbl8ou4f unique (name)");
+            statement.execute("alter table recipe add constraint FKr2d6bkvq3ikgbb3fe8ptvb8sl "
+                    + "foreign key (user_id) references app_user (id)");
+            statement.execute("alter table recipe_ingredient add constraint FKgukrw6na9f61kb8djkkuvyxy8 "
+                    + "foreign key (ingredient_id) references ingredient (id)");
+            statement.execute("alter table recipe_ingredient add constraint FKcqlw8sor5ut10xsuj3jnttkc "
+                    + "foreign key (recipe_id) references recipe (id)");
+            statement.execute("alter table user_roles add constraint FKeygsmfnhkxaqkqh7ah2ymhwmn "
+                    + "foreign key (user_id) references app_user (id)");
+
+            statement.execute("insert into app_user (id, username, password) values (1, 'legacy', 'password')");
+            // Spelled as typed: V4 merges names that differ only in case or padding
+            statement.execute("insert into ingredient (id, name) values (7, 'Leek'), (340, 'Salt'), (341, ' salt')");
+            statement.execute("insert into recipe (id, name, vegetarian, servings, instructions, is_public, user_id) "
+                    + "values (1, 'Soup', 1, 2, 'Simmer', 1, 1), (1200, 'Stew', 0, 4, 'Braise', 0, 1)");
+            statement.execute("insert into recipe_ingredient (recipe_id, ingredient_id) "
+                    + "values (1, 7), (1, 341), (1200, 340), (1200, 341)");
+        }
+    }
+
+    @Test
+    void baselinedDatabaseGetsVersionsIndexesAndSequencesPastExistingIds() {
+        assertThat(jdbc.queryForList("select version from flyway_schema_history where success = 1", String.class))
+                .contains("1", "2", "3", "4");
+        assertThat(jdbc.queryForList("select version from recipe where id in (1, 1200)", Long.class)).containsExactly(0L, 0L);
+        assertThat(jdbc.queryForObject("select next_val from recipe_seq", Long.class)).isEqualTo(1200 + 50 + 1);
+        assertThat(jdbc.queryForObject("select next_val from ingredient_seq", Long.class)).isEqualTo(341 + 50 + 1);
+        assertThat(jdbc.queryForObject("select count(*) from information_schema.statistics "
+                + "where table_schema = database() and index_name = 'idx_recipe_user_created'", Integer.class)).isPositive();
+    }
+
+    @Test
+    void ingredientNamesAreNormalizedAndMerged() {
+        assertThat(jdbc.queryForList("select name from ingredient where id <= 341 order by id", String.class))
+                .containsExactly("leek", "salt");
+        assertThat(jdbc.queryForList("select concat(recipe_id, '-', ingredient_id) from recipe_ingredient "
+                + "where recipe_id in (1, 1200)", String.class))
+                .containsExactlyInAnyOrder("1-7", "1-340", "1200-340");
+    }
+
+    @Test
+    void newRowsTakeIdsPastTheExistingOnes() {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName("Leek Gratin");
+        dto.setServings(4);
+        dto.setVegetarian(true);
+        dto.setInstructions("Bake");
+        dto.setIngredients(List.of("Leek", "Gruyere"));
+        dto.setPublic(true);
+
+        RecipeResponse created = recipeService.createRecipe("legacy", dto);
+
+        assertThat(created.id()).isGreaterThan(1200L);
+        assertThat(ingredientRepository.findAll()).extracting(Ingredient::getId)
+                .hasSize(3)
+                .contains(7L, 340L)
+                .allMatch(id -> id == 7L || id == 340L || id > 341L);
+    }
+}
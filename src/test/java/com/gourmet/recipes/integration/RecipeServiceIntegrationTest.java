@@ -1,7 +1,7 @@
 package com.gourmet.recipes.integration;
 
 import com.gourmet.recipes.dto.RecipeDTO;
-import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.dto.RecipeResponse;
 import com.gourmet.recipes.entity.User;
 import com.gourmet.recipes.repository.IngredientRepository;
 import com.gourmet.recipes.repository.RecipeRepository;
@@ -75,11 +75,11 @@ class RecipeServiceIntegrationTest {
         dto.setIngredients(List.of("Pasta", "Olive Oil"));
         dto.setPublic(true);
 
-        Recipe created = recipeService.createRecipe("testuser", dto);
+        RecipeResponse created = recipeService.createRecipe("testuser", dto);
 
-        assertThat(created.getId()).isNotNull();
-        assertThat(created.getUser().getUsername()).isEqualTo("testuser");
-        assertThat(created.getIngredients()).extracting("name")
+        assertThat(created.id()).isNotNull();
+        assertThat(created.owner()).isEqualTo("testuser");
+        assertThat(created.ingredients())
                 .containsExactlyInAnyOrder("Pasta", "Olive Oil");
     }
 
@@ -110,7 +110,7 @@ class RecipeServiceIntegrationTest {
         );
 
         assertThat(results.getTotalElements()).isEqualTo(1);
-        Recipe r = results.getContent().get(0);
-        assertThat(r.getName()).isEqualTo("Veggie Pasta");
+        RecipeResponse r = results.getContent().get(0);
+        assertThat(r.name()).isEqualTo("Veggie Pasta");
     }
 }
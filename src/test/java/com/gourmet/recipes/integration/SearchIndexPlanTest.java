@@ -0,0 +1,196 @@
+package com.gourmet.recipes.integration;
+
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.repository.RecipeRepository;
+import com.gourmet.recipes.repository.RecipeSpecifications;
+import com.gourmet.recipes.support.StatementBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that MySQL plans the main search shapes on the indexes from the Flyway
+ * migrations (which Hibernate validates the entities against on startup). The
+ * ingredient filters are explained as the SQL Hibernate generates from
+ * RecipeSpecifications; the other shapes mirror it.
+ */
+@Testcontainers
+@SpringBootTest
+@Import(StatementBudget.Config.class)
+class SearchIndexPlanTest {
+
+    private static final int USERS = 20;
+    private static final int INGREDIENTS = 200;
+    private static final int RECIPES = 5000;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0.33")
+            .withDatabaseName("recipes")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @BeforeEach
+    void seed() {
+        if (jdbc.queryForObject("select count(*) from recipe", Integer.class) > 0) {
+            return;
+        }
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 1; u <= USERS; u++) {
+            users.add(new Object[]{u, "user" + u, "password"});
+        }
+        jdbc.batchUpdate("insert into app_user (id, username, password) values (?, ?, ?)", users);
+
+        List<Object[]> ingredients = new ArrayList<>();
+        for (int i = 1; i <= INGREDIENTS; i++) {
+            ingredients.add(new Object[]{i, "ingredient" + i});
+        }
+        jdbc.batchUpdate("insert into ingredient (id, name) values (?, ?)", ingredients);
+
+        // One in ten recipes public, twelve servings values, three ingredients each
+        List<Object[]> recipes = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int r = 1; r <= RECIPES; r++) {
+            Timestamp created = Timestamp.valueOf(start.plusMinutes(r));
+            recipes.add(new Object[]{r, "Recipe " + r, r % 2 == 0, r % 12 + 1, "Cook it", created, created,
+                    r % 10 == 0, 0, r % USERS + 1});
+            for (int k = 0; k < 3; k++) {
+                links.add(new Object[]{r, (r * 7 + k * 31) % INGREDIENTS + 1});
+            }
+        }
+        jdbc.batchUpdate("insert into recipe (id, name, vegetarian, servings, instructions, created_at, updated_at, "
+                + "is_public, version, user_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", recipes);
+        jdbc.batchUpdate("insert into recipe_ingredient (recipe_id, ingredient_id) values (?, ?)", links);
+        jdbc.execute("analyze table app_user, ingredient, recipe, recipe_ingredient");
+    }
+
+    @Test
+    void migrationsRan() {
+        assertThat(jdbc.queryForList("select version from flyway_schema_history where success = 1", String.class))
+                .contains("1", "2", "3", "4");
+    }
+
+    @Test
+    void publicRecipesNewestFirst() {
+        List<Map<String, Object>> plan = explain("select r.id from recipe r where r.is_public = 1 "
+                + "order by r.created_at desc, r.id desc limit 20");
+
+        assertThat(key(plan, "r")).isEqualTo("idx_recipe_public_created");
+    }
+
+    @Test
+    void ownRecipesNewestFirst() {
+        List<Map<String, Object>> plan = explain("select r.id from recipe r join app_user u on u.id = r.user_id "
+                + "where u.username = 'user3' order by r.created_at desc, r.id desc limit 20");
+
+        assertThat(key(plan, "u")).isEqualTo("uk_app_user_username");
+        assertThat(key(plan, "r")).isEqualTo("idx_recipe_user_created");
+    }
+
+    @Test
+    void visibleRecipesCanUseBothVisibilityIndexes() {
+        List<Map<String, Object>> plan = explain("select r.id from recipe r where r.is_public = 1 or r.user_id = 3");
+
+        assertThat(possibleKeys(plan, "r")).contains("idx_recipe_public_created", "idx_recipe_user_created");
+    }
+
+    @Test
+    void servingsWithOrWithoutVegetarian() {
+        assertThat(key(explain("select r.id from recipe r where r.servings = 4"), "r"))
+                .isEqualTo("idx_recipe_servings_vegetarian");
+        assertThat(key(explain("select r.id from recipe r where r.servings = 4 and r.vegetarian = 1"), "r"))
+                .isEqualTo("idx_recipe_servings_vegetarian");
+    }
+
+    @Test
+    void anyOfIngredientsStartsFromTheIngredients() {
+        List<Map<String, Object>> plan = explain(RecipeSpecifications.hasIngredients(List.of("Ingredient5", " ingredient9")),
+                "ingredient5", "ingredient9");
+
+        assertThat(keys(plan)).contains("uk_ingredient_name", "idx_recipe_ingredient_ingredient");
+    }
+
+    @Test
+    void excludedIngredientsFilterIndexedCandidates() {
+        List<Map<String, Object>> plan = explain(RecipeSpecifications.hasServings(4)
+                .and(RecipeSpecifications.excludesIngredients(List.of("INGREDIENT5"))), 4, "ingredient5");
+
+        assertThat(keys(plan)).contains("idx_recipe_servings_vegetarian");
+        // Either probed per candidate recipe (primary key) or materialized from the ingredient side
+        assertThat(keys(plan)).containsAnyOf("PRIMARY", "idx_recipe_ingredient_ingredient");
+        assertThat(plan).noneMatch(row -> "ALL".equals(row.get("type")));
+    }
+
+    @Test
+    void keysetByName() {
+        List<Map<String, Object>> plan = explain("select r.id from recipe r "
+                + "where r.name > 'Recipe 2' or (r.name = 'Recipe 2' and r.id > 2) "
+                + "order by r.name, r.id limit 20");
+
+        assertThat(key(plan, "r")).isEqualTo("idx_recipe_name");
+    }
+
+    private List<Map<String, Object>> explain(String sql) {
+        return jdbc.queryForList("explain " + sql);
+    }
+
+    // Explains the query Hibernate generates for the spec (the first statement it runs; the
+    // rest load the owners), bound to the given parameters
+    private List<Map<String, Object>> explain(Specification<Recipe> spec, Object... parameters) {
+        List<String> statements = statementBudget.record(() -> recipeRepository.findAll(spec));
+        return jdbc.queryForList("explain " + statements.get(0), parameters);
+    }
+
+    private static Map<String, Object> row(List<Map<String, Object>> plan, String table) {
+        return plan.stream()
+                .filter(row -> table.equals(row.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + ": " + plan));
+    }
+
+    private static String key(List<Map<String, Object>> plan, String table) {
+        return (String) row(plan, table).get("key");
+    }
+
+    private static List<String> keys(List<Map<String, Object>> plan) {
+        return plan.stream().map(row -> (String) row.get("key")).toList();
+    }
+
+    private static String possibleKeys(List<Map<String, Object>> plan, String table) {
+        return String.valueOf(row(plan, table).get("possible_keys"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FullTextIndexTest {
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new FullTextIndex(Mockito.mock(RecipeRepository.class));
+        index.index(1L, "Tomato Soup", "Simmer the tomatoes with garlic");
+        index.index(2L, "Garlic Bread", "Spread garlic butter on bread and bake");
+        index.index(3L, "Pancakes", "Whisk flour, eggs and milk; fry until golden");
+    }
+
+    @Test
+    void stemsQueryAndDocumentAlike() {
+        assertThat(index.search("tomato")).extracting(FullTextIndex.Hit::recipeId).containsExactly(1L);
+        assertThat(index.search("whisking")).extracting(FullTextIndex.Hit::recipeId).containsExactly(3L);
+    }
+
+    @Test
+    void nameMatchesRankAboveInstructionMatches() {
+        assertThat(index.search("garlic")).extracting(FullTextIndex.Hit::recipeId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void reindexReplacesPreviousTerms() {
+        index.index(1L, "Pumpkin Soup", "Roast the pumpkin");
+        index.remove(3L);
+
+        assertThat(index.search("tomatoes")).isEmpty();
+        assertThat(index.search("pancake")).isEmpty();
+        assertThat(index.search("pumpkin")).extracting(FullTextIndex.Hit::recipeId).containsExactly(1L);
+    }
+}
@@ -0,0 +1,64 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.repository.PantryScore;
+import com.gourmet.recipes.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientIndexTest {
+
+    private IngredientIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new IngredientIndex(Mockito.mock(RecipeRepository.class));
+        index.index(1L, List.of("Pasta", "Tomato"));
+        index.index(2L, List.of("Pasta", "Basil"));
+        index.index(3L, List.of("Rice"));
+    }
+
+    @Test
+    void matchAnyAndAll() {
+        assertThat(index.matchAny(List.of("tomato", "Basil")).toArray()).containsExactly(1, 2);
+        assertThat(index.matchAll(List.of("Pasta", "Basil")).toArray()).containsExactly(2);
+        assertThat(index.matchAll(List.of("Pasta", "Saffron")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void excludeDropsWholeRecipe() {
+        var candidates = index.matchAny(List.of("Pasta"));
+        candidates.andNot(index.matchAny(List.of("Tomato")));
+
+        assertThat(candidates.toArray()).containsExactly(2);
+    }
+
+    @Test
+    void pantryRanksByCoverageWithinAllowedRecipes() {
+        index.index(4L, List.of("Pasta", "Tomato", "Basil", "Garlic"));
+
+        List<PantryScore> scores = index.matchPantry(List.of("pasta", "TOMATO", "Saffron"), null, 10);
+
+        // 2/2, then 2/4 ahead of 1/2 on matched count
+        assertThat(scores).extracting(PantryScore::recipeId).containsExactly(1L, 4L, 2L);
+        assertThat(scores.get(1).matched()).isEqualTo(2);
+        assertThat(scores.get(1).total()).isEqualTo(4);
+        assertThat(index.matchPantry(List.of("Pasta", "Tomato"), RoaringBitmap.bitmapOf(2, 4), 1))
+                .extracting(PantryScore::recipeId).containsExactly(4L);
+        assertThat(index.matchPantry(List.of("Saffron"), null, 10)).isEmpty();
+    }
+
+    @Test
+    void reindexAndRemoveUpdatePostings() {
+        index.index(1L, List.of("Rice"));
+        index.remove(3L);
+
+        assertThat(index.matchAny(List.of("Tomato")).isEmpty()).isTrue();
+        assertThat(index.matchAny(List.of("Rice")).toArray()).containsExactly(1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.entity.Recipe;
+import com.gourmet.recipes.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsEverySortKey() {
+        Recipe recipe = recipe(42L, "Soup: the sequel", LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000));
+
+        for (KeysetCursor.SortKey key : KeysetCursor.SortKey.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                KeysetCursor cursor = KeysetCursor.after(key, direction, recipe);
+                assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+            }
+        }
+        assertThat(KeysetCursor.decode(KeysetCursor.after(KeysetCursor.SortKey.NAME, Sort.Direction.ASC, recipe).encode())
+                .lastValue()).isEqualTo("Soup: the sequel");
+    }
+
+    @Test
+    void roundTripsNullAndEmptySortValues() {
+        Recipe undated = recipe(7L, "", null);
+
+        KeysetCursor byCreated = KeysetCursor.after(KeysetCursor.SortKey.CREATED_AT, Sort.Direction.DESC, undated);
+        KeysetCursor byName = KeysetCursor.after(KeysetCursor.SortKey.NAME, Sort.Direction.ASC, undated);
+
+        assertThat(KeysetCursor.decode(byCreated.encode())).isEqualTo(byCreated);
+        assertThat(KeysetCursor.decode(byCreated.encode()).lastValue()).isNull();
+        // An empty name is a value, not a missing one
+        assertThat(KeysetCursor.decode(byName.encode()).lastValue()).isEqualTo("");
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = KeysetCursor.after(KeysetCursor.SortKey.NAME, Sort.Direction.ASC,
+                recipe(1L, "???>>>~~~", null)).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTamperedAndInvalidTokens() {
+        String valid = KeysetCursor.after(KeysetCursor.SortKey.ID, Sort.Direction.ASC, recipe(5L, "Soup", null)).encode();
+
+        for (String token : new String[]{
+                "not base64!",
+                valid.substring(1),
+                raw("v2:ID:ASC:5:5"),
+                raw("v1:PRICE:ASC:5:5"),
+                raw("v1:ID:SIDEWAYS:5:5"),
+                raw("v1:ID:ASC:five:5"),
+                raw("v1:CREATED_AT:DESC:5:yesterday"),
+                raw("v1:NAME:ASC"),
+                ""}) {
+            assertThatThrownBy(() -> KeysetCursor.decode(token))
+                    .as(token)
+                    .isInstanceOf(InvalidInputException.class)
+                    .hasMessageStartingWith("Invalid cursor");
+        }
+    }
+
+    @Test
+    void requiresAPosition() {
+        assertThatThrownBy(() -> new KeysetCursor(KeysetCursor.SortKey.ID, Sort.Direction.ASC, 1L, null))
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new KeysetCursor(null, Sort.Direction.ASC, 1L, 1L))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void sortBreaksTiesById() {
+        assertThat(KeysetCursor.sort(KeysetCursor.SortKey.NAME, Sort.Direction.DESC))
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "name", "id"));
+        assertThat(KeysetCursor.sort(KeysetCursor.SortKey.ID, Sort.Direction.ASC))
+                .isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private static Recipe recipe(Long id, String name, LocalDateTime createdAt) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setName(name);
+        recipe.setCreatedAt(createdAt);
+        return recipe;
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
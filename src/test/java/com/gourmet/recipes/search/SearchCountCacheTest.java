@@ -0,0 +1,70 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchCountCacheTest {
+
+    private CatalogVersion catalogVersion;
+    private SearchCountCache cache;
+    private AtomicInteger counts;
+
+    @BeforeEach
+    void setup() {
+        catalogVersion = new CatalogVersion();
+        cache = new SearchCountCache(catalogVersion, Duration.ofMinutes(1), 100);
+        counts = new AtomicInteger();
+    }
+
+    @Test
+    void keyIgnoresIngredientOrderAndCase() {
+        RecipeSearchCriteria a = new RecipeSearchCriteria();
+        a.setIngredients(List.of("Tomato", "pasta"));
+        RecipeSearchCriteria b = new RecipeSearchCriteria();
+        b.setIngredients(List.of(" PASTA", "tomato", "Tomato"));
+
+        assertThat(SearchCountCache.Key.of(a, "alice", false)).isEqualTo(SearchCountCache.Key.of(b, "alice", false));
+        assertThat(SearchCountCache.Key.of(a, "alice", false)).isNotEqualTo(SearchCountCache.Key.of(a, "bob", false));
+        assertThat(SearchCountCache.Key.of(a, "alice", true)).isEqualTo(SearchCountCache.Key.of(a, "bob", true));
+    }
+
+    @Test
+    void keyKeepsNameAndTextAsTheQueryMatchesThem() {
+        RecipeSearchCriteria padded = new RecipeSearchCriteria();
+        padded.setName(" soup");
+        padded.setText("oven ");
+        RecipeSearchCriteria exact = new RecipeSearchCriteria();
+        exact.setName("soup");
+        exact.setText("oven");
+        RecipeSearchCriteria upper = new RecipeSearchCriteria();
+        upper.setName("SOUP");
+        upper.setText("Oven");
+
+        // " soup" misses a name starting with "Soup", "soup" does not; case is folded by the query itself
+        assertThat(SearchCountCache.Key.of(padded, "alice", false)).isNotEqualTo(SearchCountCache.Key.of(exact, "alice", false));
+        assertThat(SearchCountCache.Key.of(upper, "alice", false)).isEqualTo(SearchCountCache.Key.of(exact, "alice", false));
+    }
+
+    @Test
+    void cachedTotalIsRecountedAfterCatalogWrite() {
+        SearchCountCache.Key key = SearchCountCache.Key.of(new RecipeSearchCriteria(), "alice", false);
+
+        assertThat(cache.get(key, false, this::count)).isEqualTo(1);
+        assertThat(cache.get(key, false, this::count)).isEqualTo(1);
+
+        catalogVersion.onRecipeDeleted(null);
+        assertThat(cache.get(key, true, this::count)).isEqualTo(1);
+        assertThat(cache.get(key, false, this::count)).isEqualTo(2);
+    }
+
+    private long count() {
+        return counts.incrementAndGet();
+    }
+}
@@ -0,0 +1,47 @@
+package com.gourmet.recipes.search;
+
+import com.gourmet.recipes.config.StatementCounter;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StatementCounter statementCounter = new StatementCounter();
+    private final SearchMetrics searchMetrics = new SearchMetrics(registry, statementCounter);
+
+    @Test
+    void tagsByFilterShapeAndCountsStatements() {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setVegetarian(true);
+        criteria.setIngredients(List.of("garlic"));
+        criteria.setIngredientMatch(IngredientMatch.ALL);
+
+        String result = searchMetrics.record("page", criteria, () -> {
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select count(*)");
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        Timer timer = registry.find("recipes.search")
+                .tags("mode", "page", "filters", "vegetarian+ingredientsAll", "ranked", "false", "countMode", "EXACT")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        DistributionSummary statements = registry.find("recipes.search.statements").summary();
+        assertThat(statements.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void unfilteredSearchIsTaggedNone() {
+        assertThat(SearchMetrics.filters(new RecipeSearchCriteria())).isEqualTo("none");
+    }
+}
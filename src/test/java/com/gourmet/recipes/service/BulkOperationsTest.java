@@ -0,0 +1,137 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.BulkRecipeRequest;
+import com.gourmet.recipes.dto.BulkResult;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.exception.RecipeNotFoundException;
+import com.gourmet.recipes.exception.UnauthorizedActionException;
+import com.gourmet.recipes.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkOperationsTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        for (String username : List.of("bulk-alice", "bulk-bob")) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void deletesOnlyTheCallersRecipesWithTheirIngredientLinks() {
+        RecipeResponse mine = recipeService.createRecipe("bulk-alice", recipe("Bulk Pie", "Flour", "Apple"));
+        RecipeResponse theirs = recipeService.createRecipe("bulk-bob", recipe("Bulk Tart", "Flour", "Pear"));
+
+        BulkRecipeRequest request = new BulkRecipeRequest();
+        request.setIds(List.of(mine.id(), theirs.id(), Long.MAX_VALUE));
+        BulkResult result = recipeService.deleteRecipes("bulk-alice", request);
+
+        assertThat(result).isEqualTo(new BulkResult(1, 1));
+        assertThatThrownBy(() -> recipeService.getRecipeById(mine.id(), "bulk-alice", false))
+                .isInstanceOf(RecipeNotFoundException.class);
+        assertThat(recipeService.getRecipeById(theirs.id(), "bulk-bob", false).name()).isEqualTo("Bulk Tart");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from recipe_ingredient where recipe_id = ?",
+                Long.class, mine.id())).isZero();
+    }
+
+    @Test
+    void changesVisibilityOfFilteredRecipes() {
+        RecipeResponse soup = recipeService.createRecipe("bulk-alice", recipe("Bulk Soup", "Leek", "Potato"));
+        RecipeResponse salad = recipeService.createRecipe("bulk-alice", recipe("Bulk Salad", "Lettuce"));
+        RecipeResponse theirs = recipeService.createRecipe("bulk-bob", recipe("Bulk Stew", "Leek"));
+        recipeService.getRecipeById(soup.id(), "bulk-alice", false); // cached, must be dropped
+
+        RecipeSearchCriteria filter = new RecipeSearchCriteria();
+        filter.setIngredients(List.of("leek"));
+        BulkRecipeRequest request = new BulkRecipeRequest();
+        request.setFilter(filter);
+        request.setIsPublic(false);
+
+        assertThat(recipeService.changeVisibility("bulk-alice", request)).isEqualTo(new BulkResult(1, 1));
+        // Already private: nothing left to change
+        assertThat(recipeService.changeVisibility("bulk-alice", request)).isEqualTo(new BulkResult(0, 0));
+
+        RecipeResponse hidden = recipeService.getRecipeById(soup.id(), "bulk-alice", false);
+        assertThat(hidden.isPublic()).isFalse();
+        assertThat(hidden.version()).isEqualTo(soup.version() + 1);
+        assertThatThrownBy(() -> recipeService.getRecipeById(soup.id(), "bulk-bob", false))
+                .isInstanceOf(UnauthorizedActionException.class);
+        assertThat(recipeService.getRecipeById(salad.id(), "bulk-bob", false).isPublic()).isTrue();
+        assertThat(recipeService.getRecipeById(theirs.id(), "bulk-bob", false).isPublic()).isTrue();
+
+        RecipeSearchCriteria leek = new RecipeSearchCriteria();
+        leek.setIngredients(List.of("Leek"));
+        assertThat(recipeService.matchPantry(List.of("leek", "potato"), "bulk-bob", false, 10))
+                .extracting(match -> match.recipe().id())
+                .doesNotContain(soup.id());
+        assertThat(recipeService.searchRecipes(leek, "bulk-bob", false, Pageable.unpaged()).getContent())
+                .extracting(RecipeResponse::id)
+                .containsExactly(theirs.id());
+    }
+
+    @Test
+    void looksUpLongIdListsInChunks() {
+        RecipeResponse first = recipeService.createRecipe("bulk-alice", recipe("Bulk Crumble", "Apple"));
+        RecipeResponse last = recipeService.createRecipe("bulk-alice", recipe("Bulk Cobbler", "Peach"));
+
+        // More ids than one IN list takes, most of them unknown
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 2500).map(id -> -id).boxed().toList());
+        ids.add(0, first.id());
+        ids.add(last.id());
+        ids.add(last.id());
+        BulkRecipeRequest request = new BulkRecipeRequest();
+        request.setIds(ids);
+        request.setIsPublic(false);
+
+        assertThat(recipeService.changeVisibility("bulk-alice", request)).isEqualTo(new BulkResult(2, 2));
+        assertThat(recipeService.getRecipeById(last.id(), "bulk-alice", false).isPublic()).isFalse();
+    }
+
+    @Test
+    void requiresExactlyOneSelection() {
+        assertThatThrownBy(() -> recipeService.deleteRecipes("bulk-alice", new BulkRecipeRequest()))
+                .hasMessageContaining("either ids or a filter");
+    }
+
+    private static RecipeDTO recipe(String name, String... ingredients) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setServings(2);
+        dto.setInstructions("Cook");
+        dto.setIngredients(List.of(ingredients));
+        dto.setPublic(true);
+        return dto;
+    }
+}
@@ -0,0 +1,56 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.controller.AdminController;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CredentialCacheTest {
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private AdminController adminController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void passwordResetInvalidatesOnlyOnceItCommits() {
+        User user = new User();
+        user.setUsername("reset-user");
+        user.setPassword("{noop}old");
+        user.setRoles(Set.of("ROLE_USER"));
+        userRepository.save(user);
+        UserDetails details = userDetailsService.loadUserByUsername("reset-user");
+        credentialCache.store("reset-user", "old", details, credentialCache.epoch("reset-user"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            adminController.resetPassword("reset-user", "new");
+            // Until the reset commits, other transactions still verify against the old password
+            assertThat(credentialCache.lookup("reset-user", "old")).isPresent();
+        });
+
+        assertThat(credentialCache.lookup("reset-user", "old")).isEmpty();
+    }
+}
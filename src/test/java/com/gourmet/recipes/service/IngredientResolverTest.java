@@ -0,0 +1,95 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.entity.Ingredient;
+import com.gourmet.recipes.repository.IngredientRepository;
+import com.gourmet.recipes.support.StatementBudget;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@Import(StatementBudget.Config.class)
+class IngredientResolverTest {
+
+    @Autowired
+    private IngredientResolver resolver;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
+    @Autowired
+    @Qualifier("sharedDataSource")
+    private HikariDataSource sharedPool;
+
+    @Test
+    void insertsMissingNamesOnTheCallersConnection() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Set<Ingredient> resolved = transaction.execute(status -> {
+            Set<Ingredient> ingredients = resolver.resolve(List.of("Resolver Saffron", " resolver saffron ", "Resolver Sumac"));
+            // The outer transaction's connection only; no second one for the inserts
+            assertThat(sharedPool.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            return ingredients;
+        });
+
+        // Stored normalized, so lookups compare the bare name column
+        assertThat(resolved).extracting(Ingredient::getName)
+                .containsExactlyInAnyOrder("resolver saffron", "resolver sumac");
+        assertThat(ingredientRepository.findByNameIn(List.of("resolver saffron", "resolver sumac"))).hasSize(2);
+    }
+
+    @Test
+    void skipsNamesAlreadyStoredAndForgetsRolledBackOnes() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> resolver.resolve(List.of("Resolver Mace")));
+
+        // A rolled-back insert must not leave its id in the dictionary
+        transaction.executeWithoutResult(status -> {
+            resolver.resolve(List.of("Resolver Mace", "Resolver Nigella"));
+            status.setRollbackOnly();
+        });
+        Set<Ingredient> again = transaction.execute(status -> resolver.resolve(List.of("resolver mace", "Resolver Nigella")));
+
+        assertThat(again).hasSize(2);
+        assertThat(ingredientRepository.findByNameIn(List.of("resolver mace", "resolver nigella")))
+                .extracting(Ingredient::getId)
+                .containsExactlyInAnyOrderElementsOf(again.stream().map(Ingredient::getId).toList());
+    }
+
+    @Test
+    void usesTheGeneratedIdsWhenEveryRowIsInserted() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<String> statements = statementBudget.record(() -> transaction.executeWithoutResult(status -> {
+            Set<Ingredient> ingredients = resolver.resolve(List.of("Resolver Caraway", "Resolver Fenugreek"));
+            assertThat(ingredients).hasSize(2);
+        }));
+
+        // One lookup of the unknown names; nothing read back by name after the insert
+        assertThat(statements).filteredOn(sql -> sql.startsWith("select") && sql.contains(".name in ("))
+                .hasSize(1);
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert ignore")).hasSize(1);
+        assertThat(ingredientRepository.findByNameIn(List.of("resolver caraway", "resolver fenugreek")))
+                .extracting(Ingredient::getId)
+                .doesNotContainNull()
+                .hasSize(2);
+    }
+}
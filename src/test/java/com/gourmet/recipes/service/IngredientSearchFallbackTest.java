@@ -0,0 +1,137 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.IngredientIndex;
+import com.gourmet.recipes.support.StatementBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@Import(StatementBudget.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IngredientSearchFallbackTest {
+
+    // More ids than a search may bind; none of them exist
+    private static final int PHANTOM_IDS = 5_000;
+    private static final int PHANTOM_BASE = 1_000_000;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatementBudget statementBudget;
+
+    @SpyBean
+    private IngredientIndex ingredientIndex;
+
+    @BeforeAll
+    void seed() {
+        User user = new User();
+        user.setUsername("fallback-cook");
+        user.setPassword("password");
+        userRepository.save(user);
+        create("Fallback Curry", "Fenugreek", "Tamarind", "Galangal");
+        create("Fallback Broth", "Tamarind", "Kombu");
+        create("Fallback Dal", "Asafoetida", "Urad");
+    }
+
+    @AfterEach
+    void restoreIndex() {
+        reset(ingredientIndex);
+    }
+
+    @Test
+    void warmUpFallbackMatchesNamesLikeTheIndex() {
+        for (RecipeSearchCriteria criteria : List.of(
+                criteria(List.of(" TAMARIND "), List.of()),
+                criteria(List.of("tamarind", "Galangal "), List.of()),
+                criteria(List.of("Tamarind"), List.of("  fenugreek")),
+                criteria(List.of(), List.of("ASAFOETIDA")))) {
+            List<String> indexed = names(criteria);
+            doReturn(false).when(ingredientIndex).isReady();
+            try {
+                assertThat(names(criteria)).isEqualTo(indexed).isNotEmpty();
+            } finally {
+                reset(ingredientIndex);
+            }
+        }
+    }
+
+    @Test
+    void largeIdSetsGoThroughTheJoinTables() {
+        RecipeSearchCriteria included = criteria(List.of("tamarind"), List.of("fenugreek"));
+        RecipeSearchCriteria excluded = criteria(List.of(), List.of("asafoetida"));
+        List<String> includedNames = names(included);
+        List<String> excludedNames = names(excluded);
+
+        doAnswer(invocation -> withPhantoms((RoaringBitmap) invocation.callRealMethod()))
+                .when(ingredientIndex).match(anyCollection(), any());
+        doAnswer(invocation -> withPhantoms((RoaringBitmap) invocation.callRealMethod()))
+                .when(ingredientIndex).matchAny(anyCollection());
+
+        List<String> statements = new ArrayList<>();
+        statements.addAll(statementBudget.record(() -> assertThat(names(included)).isEqualTo(includedNames)));
+        statements.addAll(statementBudget.record(() -> assertThat(names(excluded)).isEqualTo(excludedNames)));
+
+        assertThat(statements).isNotEmpty()
+                .allSatisfy(sql -> assertThat(sql.chars().filter(c -> c == '?').count()).isLessThan(PHANTOM_IDS));
+    }
+
+    private static RoaringBitmap withPhantoms(RoaringBitmap ids) {
+        ids.add((long) PHANTOM_BASE, (long) PHANTOM_BASE + PHANTOM_IDS);
+        return ids;
+    }
+
+    private List<String> names(RecipeSearchCriteria criteria) {
+        return recipeService.searchRecipes(criteria, "fallback-cook", false, PageRequest.of(0, 50))
+                .map(RecipeResponse::name)
+                .filter(name -> name.startsWith("Fallback "))
+                .stream().sorted().toList();
+    }
+
+    private static RecipeSearchCriteria criteria(List<String> ingredients, List<String> excluded) {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setIngredients(ingredients);
+        criteria.setExcludedIngredients(excluded);
+        return criteria;
+    }
+
+    private void create(String name, String... ingredients) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setVegetarian(true);
+        dto.setServings(2);
+        dto.setInstructions("Simmer gently");
+        dto.setIngredients(List.of(ingredients));
+        // Private, so the shared test database shows them to no other test
+        dto.setPublic(false);
+        recipeService.createRecipe("fallback-cook", dto);
+    }
+}
@@ -0,0 +1,114 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.KeysetSlice;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.KeysetCursor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeysetPaginationTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() throws IOException {
+        User user = new User();
+        user.setUsername("seek-cook");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        // Repeated names, so the id has to break the ties
+        for (String name : List.of("Seek Bread", "Seek Apple", "Seek Bread", "Seek Cake", "Seek Apple")) {
+            RecipeDTO dto = new RecipeDTO();
+            dto.setName(name);
+            dto.setVegetarian(true);
+            dto.setServings(2);
+            dto.setInstructions("Bake");
+            dto.setIngredients(List.of("Seek Flour"));
+            recipeService.createRecipe("seek-cook", dto);
+        }
+        // Imports leave createdAt null
+        String ndjson = String.join("\n",
+                "{\"name\": \"Seek Bread\", \"vegetarian\": true, \"servings\": 2, \"instructions\": \"Bake\", \"ingredients\": [\"Seek Flour\"]}",
+                "{\"name\": \"Seek Dough\", \"vegetarian\": true, \"servings\": 2, \"instructions\": \"Knead\", \"ingredients\": [\"Seek Flour\"]}",
+                "{\"name\": \"Seek Apple\", \"vegetarian\": true, \"servings\": 2, \"instructions\": \"Bake\", \"ingredients\": [\"Seek Flour\"]}");
+        importService.importRecipes("seek-cook", new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), 10);
+    }
+
+    @Test
+    void slicesOfTwoCoverTheSameOrderAsOneSlice() {
+        for (KeysetCursor.SortKey key : KeysetCursor.SortKey.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<RecipeResponse> whole = recipeService.scrollRecipes(
+                        criteria(), "seek-cook", false, null, key, direction, 100).content();
+                assertThat(whole).as("%s %s", key, direction).hasSize(8).isSortedAccordingTo(order(key, direction));
+
+                assertThat(scroll(key, direction, 2)).as("%s %s", key, direction)
+                        .extracting(RecipeResponse::id)
+                        .containsExactlyElementsOf(whole.stream().map(RecipeResponse::id).toList());
+            }
+        }
+    }
+
+    private List<RecipeResponse> scroll(KeysetCursor.SortKey key, Sort.Direction direction, int size) {
+        List<RecipeResponse> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetSlice<RecipeResponse> slice = recipeService.scrollRecipes(
+                    criteria(), "seek-cook", false, cursor, key, direction, size);
+            rows.addAll(slice.content());
+            cursor = slice.nextCursor();
+        } while (cursor != null && rows.size() <= 8);
+        return rows;
+    }
+
+    // (sort value, id) with nulls lowest, as the database sorts them
+    private static Comparator<RecipeResponse> order(KeysetCursor.SortKey key, Sort.Direction direction) {
+        Comparator<RecipeResponse> ascending = switch (key) {
+            case ID -> Comparator.comparing(RecipeResponse::id);
+            case NAME -> by(RecipeResponse::name);
+            case CREATED_AT -> by(RecipeResponse::createdAt);
+        };
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+
+    private static <T extends Comparable<T>> Comparator<RecipeResponse> by(Function<RecipeResponse, T> value) {
+        return Comparator.comparing(value, Comparator.nullsFirst(Comparator.<T>naturalOrder()))
+                .thenComparing(RecipeResponse::id);
+    }
+
+    private static RecipeSearchCriteria criteria() {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setName("Seek ");
+        return criteria;
+    }
+}
@@ -0,0 +1,83 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.exception.RecipeNotFoundException;
+import com.gourmet.recipes.exception.UnauthorizedActionException;
+import com.gourmet.recipes.exception.VersionConflictException;
+import com.gourmet.recipes.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OptimisticUpdateTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        for (String username : List.of("optimistic-alice", "optimistic-bob")) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void appliesAtTheReadVersionAndRejectsStaleWrites() {
+        RecipeResponse created = recipeService.createRecipe("optimistic-alice", recipe("Risotto", "Rice", "Stock"));
+
+        RecipeResponse updated = recipeService.updateRecipe("optimistic-alice", created.id(),
+                recipe("Mushroom Risotto", "Rice", "Stock", "Mushroom"), created.version());
+
+        assertThat(updated.version()).isEqualTo(created.version() + 1);
+        assertThat(updated.name()).isEqualTo("Mushroom Risotto");
+        assertThat(updated.ingredients()).containsExactlyInAnyOrder("rice", "stock", "mushroom");
+        assertThat(recipeService.getRecipeById(created.id(), "optimistic-alice", false)).isEqualTo(updated);
+
+        // A second writer still holding the first version loses instead of overwriting
+        assertThatThrownBy(() -> recipeService.updateRecipe("optimistic-alice", created.id(),
+                recipe("Plain Risotto", "Rice"), created.version()))
+                .isInstanceOf(VersionConflictException.class);
+        assertThat(recipeService.getRecipeById(created.id(), "optimistic-alice", false).name()).isEqualTo("Mushroom Risotto");
+    }
+
+    @Test
+    void tellsMissingAndForeignRecipesApart() {
+        RecipeResponse created = recipeService.createRecipe("optimistic-alice", recipe("Gazpacho", "Tomato"));
+
+        assertThatThrownBy(() -> recipeService.updateRecipe("optimistic-bob", created.id(),
+                recipe("Stolen Gazpacho", "Tomato"), created.version()))
+                .isInstanceOf(UnauthorizedActionException.class);
+        assertThatThrownBy(() -> recipeService.updateRecipe("optimistic-alice", Long.MAX_VALUE,
+                recipe("Nothing", "Air"), 0))
+                .isInstanceOf(RecipeNotFoundException.class);
+    }
+
+    private static RecipeDTO recipe(String name, String... ingredients) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setServings(2);
+        dto.setInstructions("Stir");
+        dto.setIngredients(List.of(ingredients));
+        dto.setPublic(true);
+        return dto;
+    }
+}
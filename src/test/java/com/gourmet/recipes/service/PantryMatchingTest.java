@@ -0,0 +1,91 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.PantryMatchResponse;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.PantryScore;
+import com.gourmet.recipes.repository.RecipeRepository;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.IngredientIndex;
+import com.gourmet.recipes.search.VisibilityIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PantryMatchingTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IngredientIndex ingredientIndex;
+
+    @Autowired
+    private VisibilityIndex visibilityIndex;
+
+    @BeforeAll
+    void seed() {
+        for (String username : List.of("pantry-alice", "pantry-bob")) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            userRepository.save(user);
+        }
+        create("pantry-alice", "Omelette", true, "Egg", "Butter");
+        create("pantry-alice", "Secret Pancakes", false, "Egg", "Flour", "Milk");
+        create("pantry-bob", "Carbonara", true, "Egg", "Pasta", "Guanciale", "Pecorino");
+        create("pantry-bob", "Hidden Frittata", false, "Egg", "Potato");
+    }
+
+    @Test
+    void ranksVisibleRecipesByCoverageAndListsMissing() {
+        List<PantryMatchResponse> matches = recipeService.matchPantry(List.of(" egg", "MILK", "Pasta"), "pantry-alice", false, 10);
+
+        assertThat(matches).extracting(match -> match.recipe().name())
+                .containsExactly("Secret Pancakes", "Carbonara", "Omelette");
+        assertThat(matches.get(0).missing()).containsExactly("flour");
+        assertThat(matches.get(1).coverage()).isEqualTo(0.5);
+        assertThat(matches.get(1).missing()).containsExactly("guanciale", "pecorino");
+    }
+
+    @Test
+    void sqlFallbackRanksLikeTheIndex() {
+        Set<String> pantry = Set.of("egg", "milk", "pasta", "potato");
+        for (String viewer : List.of("pantry-alice", "pantry-bob")) {
+            List<PantryScore> fromIndex = ingredientIndex.matchPantry(pantry, visibilityIndex.visibleTo(viewer, false), 10);
+            List<PantryScore> fromSql = recipeRepository.findPantryScores(pantry, viewer, false, PageRequest.of(0, 10));
+
+            assertThat(fromSql).isEqualTo(fromIndex);
+        }
+        assertThat(recipeRepository.findPantryScores(pantry, "nobody", true, PageRequest.of(0, 10)))
+                .isEqualTo(ingredientIndex.matchPantry(pantry, null, 10));
+    }
+
+    private void create(String owner, String name, boolean isPublic, String... ingredients) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setServings(2);
+        dto.setInstructions("Cook it");
+        dto.setIngredients(List.of(ingredients));
+        dto.setPublic(isPublic);
+        recipeService.createRecipe(owner, dto);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.FacetIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RankedSearchTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private FacetIndex facetIndex;
+
+    @BeforeAll
+    void seed() {
+        for (String username : List.of("ranked-alice", "ranked-bob")) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            userRepository.save(user);
+        }
+        // The best saffron matches are hidden from alice or not vegetarian
+        for (int i = 0; i < 20; i++) {
+            create("ranked-bob", "Saffron Risotto " + i, false, true, "Saffron, saffron and more saffron");
+        }
+        create("ranked-bob", "Saffron Paella", true, false, "Bloom the saffron, add saffron");
+        create("ranked-bob", "Rice Pudding", true, true, "Simmer rice in milk with sugar, vanilla, cinnamon and saffron");
+        create("ranked-alice", "Sweet Buns", false, true, "Knead the dough with butter, sugar, cardamom and saffron");
+        create("ranked-alice", "Tomato Soup", true, true, "Simmer tomatoes");
+    }
+
+    @Test
+    void filtersApplyBeforeRankingAndTheTotalCountsEveryMatch() {
+        Page<RecipeResponse> first = search("ranked-alice", PageRequest.of(0, 1));
+        Page<RecipeResponse> second = search("ranked-alice", PageRequest.of(1, 1));
+
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(List.of(first.getContent().get(0).name(), second.getContent().get(0).name()))
+                .containsExactlyInAnyOrder("Rice Pudding", "Sweet Buns");
+        assertThat(search("ranked-bob", PageRequest.of(0, 50)).getTotalElements()).isEqualTo(21);
+    }
+
+    @Test
+    void warmingUpIndexesFilterEveryHitInTheDatabase() {
+        Page<RecipeResponse> indexed = search("ranked-alice", PageRequest.of(0, 10));
+        doReturn(false).when(facetIndex).isReady();
+        try {
+            Page<RecipeResponse> fromSql = search("ranked-alice", PageRequest.of(0, 10));
+
+            assertThat(fromSql.getTotalElements()).isEqualTo(indexed.getTotalElements());
+            assertThat(fromSql.getContent()).extracting(RecipeResponse::name)
+                    .containsExactlyElementsOf(indexed.getContent().stream().map(RecipeResponse::name).toList());
+        } finally {
+            reset(facetIndex);
+        }
+    }
+
+    private Page<RecipeResponse> search(String viewer, PageRequest page) {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setText("saffron");
+        criteria.setVegetarian(true);
+        criteria.setRanked(true);
+        return recipeService.searchRecipes(criteria, viewer, false, page);
+    }
+
+    private void create(String owner, String name, boolean isPublic, boolean vegetarian, String instructions) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setVegetarian(vegetarian);
+        dto.setServings(2);
+        dto.setInstructions(instructions);
+        dto.setIngredients(List.of("Rice"));
+        dto.setPublic(isPublic);
+        recipeService.createRecipe(owner, dto);
+    }
+}
@@ -0,0 +1,66 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.RecipeResponse;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeCacheTest {
+
+    @Test
+    void loaderDoesNotPinVirtualThread() throws Exception {
+        RecipeCache cache = new RecipeCache(Duration.ofMinutes(1), 100);
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(10));
+            stream.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            stream.startAsync();
+
+            // A blocking loader stands in for the recipe query
+            Thread.ofVirtual().start(() -> cache.get(1L, id -> {
+                sleep(50);
+                return new RecipeResponse(id, "Soup", true, 2, "Simmer.", List.of("Leek"), true, "owner", null, null, 0);
+            })).join();
+            stream.stop();
+        }
+
+        assertThat(pinned).isEmpty();
+        assertThat(cache.get(1L, id -> { throw new AssertionError("cached"); }).name()).isEqualTo("Soup");
+    }
+
+    @Test
+    void invalidationDuringLoadLeavesNoStaleEntry() {
+        RecipeCache cache = new RecipeCache(Duration.ofMinutes(1), 100);
+
+        // The writer commits and invalidates while the reader still holds the old row
+        RecipeResponse stale = cache.get(1L, id -> {
+            RecipeResponse old = recipe(id, true);
+            cache.invalidate(id);
+            return old;
+        });
+
+        assertThat(stale.isPublic()).isTrue();
+        assertThat(cache.getIfPresent(1L)).isEmpty();
+        assertThat(cache.get(1L, id -> recipe(id, false)).isPublic()).isFalse();
+        assertThat(cache.getIfPresent(1L)).hasValueSatisfying(cached -> assertThat(cached.isPublic()).isFalse());
+    }
+
+    private static RecipeResponse recipe(Long id, boolean isPublic) {
+        return new RecipeResponse(id, "Soup", true, 2, "Simmer.", List.of("Leek"), isPublic, "owner", null, null, 0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.gourmet.recipes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RecipeExportServiceTest {
+
+    // Two full chunks of 500 and a partial one
+    private static final int RECIPES = 1_234;
+
+    @Autowired
+    private RecipeExportService exportService;
+
+    @Autowired
+    private RecipeImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() throws IOException {
+        User user = new User();
+        user.setUsername("export-cook");
+        user.setPassword("password");
+        userRepository.save(user);
+
+        String ndjson = IntStream.range(0, RECIPES)
+                .mapToObj(i -> "{\"name\": \"Export " + i + "\", \"vegetarian\": " + (i % 2 == 0)
+                        + ", \"servings\": " + (1 + i % 6) + ", \"instructions\": \"Stir, then \\\"rest\\\"\""
+                        + ", \"ingredients\": [\"Export Spice " + (i % 7) + "\", \"Export Base\"], \"public\": false}")
+                .collect(Collectors.joining("\n"));
+        importService.importRecipes("export-cook", new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), 500);
+    }
+
+    @Test
+    void ndjsonHasEveryRecipeWithItsIngredients() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportRecipes("export-cook", RecipeExportService.Scope.MINE, RecipeExportService.Format.NDJSON, out);
+
+        List<RecipeDTO> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            exported.add(objectMapper.readValue(line, RecipeDTO.class));
+        }
+
+        assertThat(exported).hasSize(RECIPES);
+        Map<String, RecipeDTO> byName = exported.stream()
+                .collect(Collectors.toMap(RecipeDTO::getName, dto -> dto));
+        assertThat(byName).hasSize(RECIPES);
+        for (int i = 0; i < RECIPES; i++) {
+            RecipeDTO dto = byName.get("Export " + i);
+            assertThat(dto.getServings()).isEqualTo(1 + i % 6);
+            assertThat(dto.getInstructions()).isEqualTo("Stir, then \"rest\"");
+            assertThat(dto.getIngredients()).containsExactlyInAnyOrder("export spice " + (i % 7), "export base");
+        }
+    }
+
+    @Test
+    void csvHasAHeaderAndOneQuotedRowPerRecipe() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportRecipes("export-cook", RecipeExportService.Scope.MINE, RecipeExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(RECIPES + 1);
+        assertThat(lines[0]).isEqualTo("name,vegetarian,servings,instructions,ingredients,public");
+        assertThat(lines).filteredOn(line -> line.startsWith("Export 0,"))
+                .singleElement().asString().contains(",\"Stir, then \"\"rest\"\"\",");
+    }
+
+    @Test
+    void persistenceContextIsClearedAfterEachChunk() {
+        List<Integer> managed = new ArrayList<>();
+        // Flushed once per chunk, before that chunk is evicted
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                managed.add(entityManager.unwrap(SessionImplementor.class)
+                        .getPersistenceContext().getNumberOfManagedEntities());
+            }
+        };
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                exportService.exportRecipes(
+                        "export-cook", RecipeExportService.Scope.MINE, RecipeExportService.Format.NDJSON, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            assertThat(entityManager.unwrap(SessionImplementor.class)
+                    .getPersistenceContext().getNumberOfManagedEntities()).isZero();
+        });
+
+        // Recipes of one chunk plus the ingredients and owner they reference, never the whole export
+        assertThat(managed).hasSizeGreaterThanOrEqualTo(3).allSatisfy(count -> assertThat(count).isLessThan(520));
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(RECIPES);
+    }
+}
@@ -0,0 +1,123 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.ImportReport;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.entity.Ingredient;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.exception.InvalidInputException;
+import com.gourmet.recipes.repository.IngredientRepository;
+import com.gourmet.recipes.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RecipeImportServiceTest {
+
+    @Autowired
+    private RecipeImportService importService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @BeforeAll
+    void seed() {
+        User user = new User();
+        user.setUsername("import-cook");
+        user.setPassword("password");
+        userRepository.save(user);
+    }
+
+    @Test
+    void commitsPerChunkAndReportsEachRejectedLine() throws IOException {
+        // Longer than the ingredient name column: valid JSON, rejected by the database
+        String oversized = "Import Dust ".repeat(30);
+        ImportReport report = importService.importRecipes("import-cook", ndjson(
+                recipe("Import Soup", "Import Leek"),              // 1, chunk 1
+                "{\"name\": \"Import Broken\",",                    // 2, malformed
+                "   ",                                              // 3, skipped
+                recipe("I", "Import Leek"),                         // 4, name too short
+                recipe("Import Stew", "Import Leek"),               // 5, chunk 1
+                recipe("Import Dusty Bread", oversized),            // 6, chunk 2
+                recipe("Import Dusty Cake", "Import Flour"),        // 7, chunk 2
+                recipe("Import Curry", "Import Sumac"),             // 8, chunk 3
+                recipe("Import Dip", " import SUMAC ")              // 9, chunk 3
+        ), 2);
+
+        assertThat(report.total()).isEqualTo(8);
+        assertThat(report.imported()).isEqualTo(4);
+        assertThat(report.failed()).isEqualTo(4);
+        assertThat(report.errors()).extracting(ImportReport.RecordError::line).containsExactly(2L, 4L, 6L, 7L);
+        assertThat(report.errors().get(0).message()).startsWith("Malformed JSON");
+        assertThat(report.errors().get(1).message()).isEqualTo("Recipe name must be between 2 and 100 characters");
+        assertThat(report.errors().get(2).message()).startsWith("Batch rejected");
+        assertThat(report.errors().get(3).message()).isEqualTo(report.errors().get(2).message());
+
+        assertThat(names(List.of("import leek"))).containsExactly("Import Soup", "Import Stew");
+        // The rolled-back chunk left neither its recipes nor its new ingredients behind
+        assertThat(names(List.of("import flour"))).isEmpty();
+        assertThat(ingredientRepository.findByNameIn(List.of("import flour"))).isEmpty();
+    }
+
+    @Test
+    void resolvesEachIngredientOnceAcrossAChunk() throws IOException {
+        ImportReport report = importService.importRecipes("import-cook", ndjson(
+                recipe("Import Tagine", "Import Ras El Hanout", "Import Lamb"),
+                recipe("Import Couscous", " import ras el hanout "),
+                recipe("Import Harira", "IMPORT RAS EL HANOUT", "Import Lamb")
+        ), 10);
+
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(ingredientRepository.findByNameIn(List.of("import ras el hanout", "import lamb")))
+                .extracting(Ingredient::getName)
+                .containsExactlyInAnyOrder("import ras el hanout", "import lamb");
+        assertThat(names(List.of("import ras el hanout")))
+                .containsExactly("Import Couscous", "Import Harira", "Import Tagine");
+    }
+
+    @Test
+    void rejectsUnknownOwnerAndBadBatchSize() {
+        assertThatThrownBy(() -> importService.importRecipes("nobody", ndjson(recipe("Import Pie", "Import Apple")), 10))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> importService.importRecipes("import-cook", ndjson(recipe("Import Pie", "Import Apple")), 0))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    private List<String> names(List<String> ingredients) {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setIngredients(ingredients);
+        return recipeService.searchRecipes(criteria, "import-cook", false, PageRequest.of(0, 50))
+                .map(RecipeResponse::name)
+                .stream().sorted().toList();
+    }
+
+    private static String recipe(String name, String... ingredients) {
+        return "{\"name\": \"" + name + "\", \"vegetarian\": true, \"servings\": 2, \"instructions\": \"Simmer\", "
+                + "\"ingredients\": [\"" + String.join("\", \"", ingredients) + "\"], \"public\": false}";
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,7 @@
 package com.gourmet.recipes.service;
 
 import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
 import com.gourmet.recipes.entity.Ingredient;
 import com.gourmet.recipes.entity.Recipe;
 import com.gourmet.recipes.entity.User;
@@ -8,10 +9,18 @@ import com.gourmet.recipes.mapper.RecipeMapper;
 import com.gourmet.recipes.repository.IngredientRepository;
 import com.gourmet.recipes.repository.RecipeRepository;
 import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.FullTextIndex;
+import com.gourmet.recipes.search.IngredientIndex;
+import com.gourmet.recipes.search.FacetIndex;
+import com.gourmet.recipes.search.SearchCountCache;
+import com.gourmet.recipes.search.VisibilityIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -19,24 +28,39 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class RecipeServiceTest {
 
     private RecipeRepository recipeRepository;
     private IngredientRepository ingredientRepository;
+    private IngredientResolver ingredientResolver;
     private UserRepository userRepository;
     private RecipeMapper recipeMapper;
+    private IngredientIndex ingredientIndex;
+    private FullTextIndex fullTextIndex;
+    private RecipeCache recipeCache;
+    private ApplicationEventPublisher eventPublisher;
     private RecipeService service;
 
     @BeforeEach
     void setup() {
         recipeRepository = Mockito.mock(RecipeRepository.class);
         ingredientRepository = Mockito.mock(IngredientRepository.class);
+        ingredientResolver = Mockito.mock(IngredientResolver.class);
         userRepository = Mockito.mock(UserRepository.class);
         recipeMapper = Mockito.mock(RecipeMapper.class);
+        ingredientIndex = Mockito.mock(IngredientIndex.class);
+        fullTextIndex = Mockito.mock(FullTextIndex.class);
+        recipeCache = new RecipeCache(Duration.ofMinutes(1), 100);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
 
-        service = new RecipeService(recipeRepository, ingredientRepository, userRepository, recipeMapper);
+        service = new RecipeService(recipeRepository, ingredientResolver, userRepository, recipeMapper,
+                ingredientIndex, fullTextIndex, Mockito.mock(VisibilityIndex.class),
+                Mockito.mock(FacetIndex.class), recipeCache,
+                Mockito.mock(SearchCountCache.class), eventPublisher);
     }
 
     @Test
@@ -54,11 +78,12 @@ class RecipeServiceTest {
         when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(mockUser));
 
         Ingredient pasta = new Ingredient();
+        pasta.setId(1L);
         pasta.setName("Pasta");
         pasta.setRecipes(new HashSet<>());
         when(ingredientRepository.findByName("Pasta")).thenReturn(Optional.of(pasta));
         when(ingredientRepository.findByName("Olive Oil")).thenReturn(Optional.empty());
-        when(recipeMapper.toEntity(dto, ingredientRepository)).thenAnswer(invocation -> {
+        when(recipeMapper.toEntity(dto, ingredientResolver)).thenAnswer(invocation -> {
             Recipe r = new Recipe();
             r.setName(dto.getName());
             r.setServings(dto.getServings());
@@ -69,6 +94,7 @@ class RecipeServiceTest {
             for (String name : dto.getIngredients()) {
                 Ingredient ing = ingredientRepository.findByName(name).orElseGet(() -> {
                     Ingredient newIng = new Ingredient();
+                    newIng.setId(2L);
                     newIng.setName(name);
                     return newIng;
                 });
@@ -79,13 +105,37 @@ class RecipeServiceTest {
             return r; });
 
         when(recipeRepository.save(any(Recipe.class))).thenAnswer(inv -> inv.getArgument(0));
+        RecipeResponse response = new RecipeResponse(1L, "Pasta", true, 2, "Boil pasta.",
+                List.of("Pasta", "Olive Oil"), false, "testUser", null, null, 0);
+        when(recipeMapper.toResponse(any(Recipe.class))).thenReturn(response);
 
-        Recipe saved = service.createRecipe("testUser", dto);
+        assertThat(service.createRecipe("testUser", dto)).isSameAs(response);
 
+        ArgumentCaptor<Recipe> captor = ArgumentCaptor.forClass(Recipe.class);
+        verify(recipeRepository).save(captor.capture());
+        Recipe saved = captor.getValue();
         assertThat(saved.getName()).isEqualTo(dto.getName());
         assertThat(saved.getIngredients())
                 .extracting(Ingredient::getName)
                 .containsExactlyInAnyOrderElementsOf(dto.getIngredients());
         assertThat(saved.getUser().getUsername()).isEqualTo("testUser");
     }
+
+    @Test
+    void testGetRecipeByIdReadsThroughCache() {
+        Recipe recipe = new Recipe();
+        recipe.setId(7L);
+        when(recipeRepository.findById(7L)).thenReturn(Optional.of(recipe));
+        when(recipeMapper.toResponse(recipe)).thenReturn(new RecipeResponse(7L, "Soup", true, 2, "Simmer.",
+                List.of("Leek"), false, "owner", null, null, 0));
+
+        assertThat(service.getRecipeById(7L, "owner", false).name()).isEqualTo("Soup");
+        assertThat(service.getRecipeById(7L, "owner", false).name()).isEqualTo("Soup");
+        verify(recipeRepository, times(1)).findById(7L);
+
+        recipeCache.invalidate(7L);
+        service.getRecipeById(7L, "admin", true);
+        verify(recipeRepository, times(2)).findById(7L);
+        assertThat(recipeCache.stats().hitCount()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,234 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.BulkRecipeRequest;
+import com.gourmet.recipes.dto.BulkResult;
+import com.gourmet.recipes.dto.FacetedPage;
+import com.gourmet.recipes.dto.KeysetSlice;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.KeysetCursor;
+import com.gourmet.recipes.support.StatementBudget;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the hot paths against N+1 regressions: each operation must stay within
+ * a fixed number of SQL statements regardless of how many rows it touches.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@Import(StatementBudget.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RecipeStatementBudgetTest {
+
+    private static final String OWNER = "budget-owner";
+    private static final String OTHER_OWNER = "budget-other";
+
+    @Autowired
+    private StatementBudget budget;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @BeforeAll
+    void seed() {
+        for (String username : List.of(OWNER, OTHER_OWNER)) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(passwordEncoder.encode("password"));
+            userRepository.save(user);
+        }
+
+        // Two owners, so result pages have more than one owner to load
+        for (int i = 0; i < 30; i++) {
+            recipeService.createRecipe(i % 2 == 0 ? OWNER : OTHER_OWNER, recipe("Seeded " + i, 6));
+        }
+    }
+
+    @Test
+    void createWithTenIngredients() {
+        // user, ingredient batch fetch, recipe insert, join rows (one JDBC batch)
+        RecipeResponse created = budget.assertAtMost(4, "create with 10 ingredients",
+                () -> recipeService.createRecipe(OWNER, recipe("Created", 10)));
+
+        assertThat(created.ingredients()).hasSize(10);
+    }
+
+    @Test
+    void getById() {
+        Long id = recipeService.createRecipe(OWNER, recipe("Fetched", 8)).id();
+
+        // recipe with ingredients, owner
+        budget.assertAtMost(2, "get by id (uncached)", () -> recipeService.getRecipeById(id, OWNER, false));
+        budget.assertAtMost(0, "get by id (cached)", () -> recipeService.getRecipeById(id, OWNER, false));
+    }
+
+    @Test
+    void versionCheck() {
+        Long id = recipeService.createRecipe(OWNER, recipe("Revalidated", 8)).id();
+
+        // version, visibility and owner only
+        budget.assertAtMost(1, "version check (uncached)", () -> recipeService.getRecipeVersion(id, OWNER, false));
+        recipeService.getRecipeById(id, OWNER, false);
+        budget.assertAtMost(0, "version check (cached)", () -> recipeService.getRecipeVersion(id, OWNER, false));
+    }
+
+    @Test
+    void updateReplacingIngredients() {
+        Long id = recipeService.createRecipe(OWNER, recipe("Updated", 8)).id();
+        RecipeDTO changes = recipe("Updated again", 8);
+        changes.setIngredients(IntStream.range(4, 12).mapToObj(i -> "ingredient-" + i).toList());
+
+        // user, recipe with ingredients, 2 name lookups + insert for the new ingredients,
+        // their batch fetch, recipe update, join row delete and insert batches
+        budget.assertAtMost(9, "update replacing half the ingredients",
+                () -> recipeService.updateRecipe(OWNER, id, changes));
+    }
+
+    @Test
+    void updateInstructionsOnly() {
+        Long id = recipeService.createRecipe(OWNER, recipe("Retyped", 8)).id();
+        RecipeDTO changes = recipe("Retyped", 8);
+        changes.setInstructions("Fixed a typo");
+        changes.setIngredients(changes.getIngredients().stream().map(String::toUpperCase).toList());
+
+        // user, recipe with ingredients, recipe update; no ingredient lookups or join rows
+        budget.assertAtMost(3, "update keeping the ingredients",
+                () -> recipeService.updateRecipe(OWNER, id, changes));
+    }
+
+    @Test
+    void optimisticUpdateReplacingIngredients() {
+        RecipeResponse created = recipeService.createRecipe(OWNER, recipe("Optimistic", 8));
+        RecipeDTO changes = recipe("Optimistic again", 8);
+        changes.setIngredients(IntStream.range(4, 12).mapToObj(i -> "ingredient-" + i).toList());
+
+        // guarded update, recipe with ingredients, 2 name lookups + insert for the new
+        // ingredients, their batch fetch, join row delete and insert batches
+        RecipeResponse updated = budget.assertAtMost(8, "optimistic update replacing half the ingredients",
+                () -> recipeService.updateRecipe(OWNER, created.id(), changes, created.version()));
+
+        assertThat(updated.version()).isEqualTo(created.version() + 1);
+    }
+
+    @Test
+    void searchPageOfTwenty() {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setIngredients(List.of("ingredient-1"));
+
+        // page, owners (one batch), count, ingredients (one batch)
+        Page<RecipeResponse> page = budget.assertAtMost(4, "search page of 20",
+                () -> recipeService.searchRecipes(criteria, OWNER, false, PageRequest.of(0, 20)));
+
+        assertThat(page.getContent()).hasSize(20);
+    }
+
+    @Test
+    void searchPageWithFacets() {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setIngredients(List.of("ingredient-1"));
+        criteria.setFacets(true);
+
+        // same as a plain page: facets are counted from the in-memory indexes
+        Page<RecipeResponse> page = budget.assertAtMost(4, "search page of 20 with facets",
+                () -> recipeService.searchRecipes(criteria, OWNER, false, PageRequest.of(0, 20)));
+
+        assertThat(((FacetedPage<RecipeResponse>) page).getFacets().ingredients()).isNotEmpty();
+    }
+
+    @Test
+    void scrollSliceOfTwenty() {
+        // slice, owners, ingredients
+        KeysetSlice<RecipeResponse> slice = budget.assertAtMost(3, "scroll slice of 20",
+                () -> recipeService.scrollRecipes(new RecipeSearchCriteria(), OWNER, false, null,
+                        KeysetCursor.SortKey.CREATED_AT, Sort.Direction.DESC, 20));
+
+        assertThat(slice.content()).hasSize(20);
+    }
+
+    @Test
+    void pantryMatch() {
+        // matched recipes with ingredients, owners
+        var matches = budget.assertAtMost(2, "pantry match of 20",
+                () -> recipeService.matchPantry(List.of("ingredient-0", "ingredient-1", "ingredient-2"), OWNER, false, 20));
+
+        assertThat(matches).hasSize(20);
+    }
+
+    @Test
+    void delete() {
+        Long id = recipeService.createRecipe(OWNER, recipe("Deleted", 8)).id();
+
+        // user, recipe, join rows delete, recipe delete
+        budget.assertAtMost(4, "delete", () -> recipeService.deleteRecipe(OWNER, id));
+    }
+
+    @Test
+    void bulkDelete() {
+        BulkRecipeRequest request = new BulkRecipeRequest();
+        request.setIds(IntStream.range(0, 5).mapToObj(i -> recipeService.createRecipe(OWNER, recipe("Bulk deleted", 8)).id()).toList());
+
+        // ids, join rows delete, recipe delete
+        BulkResult result = budget.assertAtMost(3, "bulk delete of 5", () -> recipeService.deleteRecipes(OWNER, request));
+
+        assertThat(result.affected()).isEqualTo(5);
+    }
+
+    @Test
+    void bulkVisibility() {
+        BulkRecipeRequest request = new BulkRecipeRequest();
+        request.setIds(IntStream.range(0, 5).mapToObj(i -> recipeService.createRecipe(OWNER, recipe("Bulk hidden", 8)).id()).toList());
+        request.setIsPublic(false);
+
+        // ids, update
+        BulkResult result = budget.assertAtMost(2, "bulk visibility of 5", () -> recipeService.changeVisibility(OWNER, request));
+
+        assertThat(result.affected()).isEqualTo(5);
+    }
+
+    @Test
+    void authenticateOnCacheMiss() {
+        // user joined with roles
+        budget.assertAtMost(1, "authenticate", () -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(OWNER, "password")));
+    }
+
+    private static RecipeDTO recipe(String name, int ingredients) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setServings(2);
+        dto.setVegetarian(true);
+        dto.setInstructions("Chop everything and simmer");
+        dto.setIngredients(IntStream.range(0, ingredients).mapToObj(i -> "ingredient-" + i).toList());
+        dto.setPublic(true);
+        return dto;
+    }
+}
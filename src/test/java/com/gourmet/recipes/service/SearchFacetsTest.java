@@ -0,0 +1,116 @@
+package com.gourmet.recipes.service;
+
+import com.gourmet.recipes.dto.FacetedPage;
+import com.gourmet.recipes.dto.RecipeDTO;
+import com.gourmet.recipes.dto.RecipeResponse;
+import com.gourmet.recipes.dto.RecipeSearchCriteria;
+import com.gourmet.recipes.dto.SearchFacets;
+import com.gourmet.recipes.entity.User;
+import com.gourmet.recipes.repository.UserRepository;
+import com.gourmet.recipes.search.FacetIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchFacetsTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private FacetIndex facetIndex;
+
+    @BeforeAll
+    void seed() {
+        for (String username : List.of("facet-alice", "facet-bob")) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            userRepository.save(user);
+        }
+        create("facet-alice", "Shakshuka", true, true, 2, "Egg", "Tomato", "Pepper");
+        create("facet-alice", "Private Salad", false, true, 1, "Tomato", "Basil");
+        create("facet-bob", "Chili", true, false, 6, "Beef", "Tomato", "Pepper");
+        create("facet-bob", "Hidden Stew", false, false, 8, "Beef", "Potato");
+        // Spelled differently, still the same ingredient in both the index and the SQL counts
+        create("facet-bob", "Tomato Soup", true, true, 12, " TOMATO ", "Basil");
+    }
+
+    @Test
+    void countsOverTheWholeVisibleResultSet() {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setIngredients(List.of("tomato"));
+        criteria.setFacets(true);
+        criteria.setFacetSize(2);
+
+        SearchFacets facets = facets(criteria, "facet-alice");
+
+        // Shakshuka, Private Salad, Chili, Tomato Soup; the page of one must not limit the counts
+        assertThat(facets.vegetarian()).containsExactly(
+                new SearchFacets.Count("true", 3), new SearchFacets.Count("false", 1));
+        assertThat(facets.servings()).containsExactly(
+                new SearchFacets.Count("1-2", 2), new SearchFacets.Count("3-4", 0),
+                new SearchFacets.Count("5-6", 1), new SearchFacets.Count("7-8", 0),
+                new SearchFacets.Count("9+", 1));
+        assertThat(facets.ingredients()).containsExactly(
+                new SearchFacets.Count("tomato", 4), new SearchFacets.Count("basil", 2));
+    }
+
+    @Test
+    void sqlFallbackCountsLikeTheIndexes() {
+        for (String viewer : List.of("facet-alice", "facet-bob")) {
+            for (RecipeSearchCriteria criteria : List.of(criteria(null, null), criteria(false, "e"), criteria(true, null))) {
+                SearchFacets indexed = facets(criteria, viewer);
+                doReturn(false).when(facetIndex).isReady();
+                try {
+                    assertThat(facets(criteria, viewer)).isEqualTo(indexed);
+                } finally {
+                    reset(facetIndex);
+                }
+            }
+        }
+    }
+
+    private SearchFacets facets(RecipeSearchCriteria criteria, String viewer) {
+        Page<RecipeResponse> page = recipeService.searchRecipes(criteria, viewer, false, PageRequest.of(0, 1));
+        return ((FacetedPage<RecipeResponse>) page).getFacets();
+    }
+
+    private static RecipeSearchCriteria criteria(Boolean vegetarian, String text) {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria();
+        criteria.setVegetarian(vegetarian);
+        criteria.setText(text);
+        criteria.setExcludedIngredients(List.of("Egg"));
+        criteria.setFacets(true);
+        return criteria;
+    }
+
+    private void create(String owner, String name, boolean isPublic, boolean vegetarian, int servings, String... ingredients) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setVegetarian(vegetarian);
+        dto.setServings(servings);
+        dto.setInstructions("Simmer gently");
+        dto.setIngredients(List.of(ingredients));
+        dto.setPublic(isPublic);
+        recipeService.createRecipe(owner, dto);
+    }
+}
@@ -0,0 +1,94 @@
+package com.gourmet.recipes.support;
+
+import com.gourmet.recipes.config.StatementCounter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Holds operations to a SQL statement budget. Installed as Hibernate's statement
+ * inspector by {@code @Import(StatementBudget.Config.class)}, it records every
+ * statement prepared on the calling thread while an operation runs and fails with
+ * the full list once the budget is exceeded.
+ * <p>
+ * A JDBC batch is prepared once, so a batched insert of n rows counts as one.
+ */
+public class StatementBudget extends StatementCounter {
+
+    private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        @Primary
+        public StatementBudget statementBudget() {
+            return new StatementBudget();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = recording.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return super.inspect(sql);
+    }
+
+    public <T> T assertAtMost(int budget, String operation, Supplier<T> action) {
+        List<String> statements = new ArrayList<>();
+        List<String> outer = recording.get();
+        recording.set(statements);
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            recording.set(outer);
+            if (outer != null) {
+                outer.addAll(statements);
+            }
+        }
+        if (statements.size() > budget) {
+            throw new AssertionError(describe(budget, operation, statements));
+        }
+        return result;
+    }
+
+    public void assertAtMost(int budget, String operation, Runnable action) {
+        assertAtMost(budget, operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // The statements an operation prepared on the calling thread
+    public List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        List<String> outer = recording.get();
+        recording.set(statements);
+        try {
+            action.run();
+        } finally {
+            recording.set(outer);
+            if (outer != null) {
+                outer.addAll(statements);
+            }
+        }
+        return statements;
+    }
+
+    private static String describe(int budget, String operation, List<String> statements) {
+        StringBuilder message = new StringBuilder()
+                .append(operation).append(" issued ").append(statements.size())
+                .append(" SQL statements, budget is ").append(budget).append(':');
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(System.lineSeparator()).append(String.format("%3d. ", i + 1)).append(statements.get(i));
+        }
+        return message.toString();
+    }
+}